@@ -0,0 +1,197 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.objectionary.aoi.data.FreeAttribute;
+import org.objectionary.aoi.data.FreeAttributesHolder;
+import org.objectionary.aoi.data.Parameter;
+import org.objectionary.aoi.process.InnerUsageProcessor;
+import org.objectionary.aoi.process.InstanceUsageProcessor;
+import org.objectionary.ddr.graph.AttributesSetter;
+import org.objectionary.ddr.graph.AttributesUtilKt;
+import org.objectionary.ddr.graph.CondAttributesSetter;
+import org.objectionary.ddr.graph.GraphBuilder;
+import org.objectionary.ddr.graph.InnerPropagator;
+import org.objectionary.ddr.graph.repr.Graph;
+import org.objectionary.ddr.graph.repr.IGraphAttr;
+import org.objectionary.ddr.graph.repr.IGraphNode;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * AOI tool, applied to the parsed programs in memory.
+ *
+ * <p>It does the same as {@code LauncherKt.launch} of AOI, but neither reads
+ * the programs from disk nor writes them back: the {@code <aoi/>} section
+ * is added right to the given documents. The types are inferred from
+ * the objects of all the programs, but the section may be added only
+ * to some of them.</p>
+ *
+ * @since 0.0.4
+ */
+final class Aoi {
+
+    /**
+     * Lock, since AOI keeps its state in static fields.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Parsed programs by their names.
+     */
+    private final Map<String, Document> programs;
+
+    /**
+     * Names of the programs to add the section to.
+     */
+    private final Set<String> targets;
+
+    /**
+     * Ctor.
+     *
+     * @param programs Parsed programs by their names
+     */
+    Aoi(final Map<String, Document> programs) {
+        this(programs, programs.keySet());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param programs Parsed programs by their names
+     * @param targets Names of the programs to add the section to
+     */
+    Aoi(final Map<String, Document> programs, final Set<String> targets) {
+        this.programs = programs;
+        this.targets = targets;
+    }
+
+    /**
+     * Infers types of free attributes and adds the {@code <aoi/>} section
+     * to each target program.
+     */
+    void exec() {
+        final Map<Document, String> docs = new LinkedHashMap<>(this.programs.size());
+        for (final Map.Entry<String, Document> entry : new TreeMap<>(this.programs).entrySet()) {
+            docs.put(entry.getValue(), entry.getKey());
+        }
+        synchronized (Aoi.LOCK) {
+            FreeAttributesHolder.INSTANCE.getStorage().clear();
+            final GraphBuilder builder = new GraphBuilder(docs);
+            builder.createGraph();
+            final Graph graph = builder.getGraph();
+            new CondAttributesSetter(graph).processConditions();
+            new AttributesSetter(graph).setAttributes();
+            new InnerPropagator(graph).propagateInnerAttrs();
+            new InnerUsageProcessor(graph).processInnerUsages();
+            new InstanceUsageProcessor(graph).processInstanceUsages();
+            for (final Map.Entry<Document, String> entry : docs.entrySet()) {
+                if (!this.targets.contains(entry.getValue())) {
+                    continue;
+                }
+                final Document doc = entry.getKey();
+                final Element aoi = doc.createElement("aoi");
+                Aoi.append(graph, aoi);
+                doc.getElementsByTagName("program").item(0).appendChild(aoi);
+            }
+            FreeAttributesHolder.INSTANCE.getStorage().clear();
+        }
+    }
+
+    /**
+     * Adds inferred types of the free attributes of the document.
+     *
+     * @param graph Inheritance graph
+     * @param aoi Element of the AOI section
+     */
+    private static void append(final Graph graph, final Element aoi) {
+        final Document doc = aoi.getOwnerDocument();
+        for (final FreeAttribute attr : FreeAttributesHolder.INSTANCE.getStorage()) {
+            if (!doc.equals(attr.getHolderObject().getOwnerDocument())) {
+                continue;
+            }
+            final Element obj = doc.createElement("obj");
+            obj.setAttribute("fqn", Aoi.fqn(attr.getName(), attr.getHolderObject()));
+            final Element inferred = doc.createElement("inferred");
+            for (final IGraphNode node : graph.getIgNodes()) {
+                if (node.getName() != null && Aoi.applicable(attr, node)) {
+                    final Element type = doc.createElement("obj");
+                    type.setAttribute(
+                        "fqn", Aoi.fqn(node.getName(), node.getBody().getParentNode())
+                    );
+                    inferred.appendChild(type);
+                }
+            }
+            obj.appendChild(inferred);
+            aoi.appendChild(obj);
+        }
+    }
+
+    /**
+     * Checks whether the object has all the attributes applied to the free one.
+     *
+     * @param attr Free attribute
+     * @param node Object
+     * @return True if the object may be the value of the attribute
+     */
+    private static boolean applicable(final FreeAttribute attr, final IGraphNode node) {
+        boolean all = true;
+        for (final Parameter param : attr.getAppliedAttributes()) {
+            boolean found = false;
+            for (final IGraphAttr candidate : node.getAttributes()) {
+                if (candidate.getName().equals(param.getName().substring(1))) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                all = false;
+                break;
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Fully qualified name of the attribute.
+     *
+     * @param name Name of the attribute
+     * @param holder Object holding the attribute
+     * @return Fully qualified name
+     */
+    private static String fqn(final String name, final Node holder) {
+        final StringBuilder fqn = new StringBuilder(name);
+        Node parent = holder;
+        while (AttributesUtilKt.name(parent) != null) {
+            fqn.insert(0, '.').insert(0, AttributesUtilKt.name(parent));
+            parent = parent.getParentNode();
+        }
+        return fqn.toString();
+    }
+}
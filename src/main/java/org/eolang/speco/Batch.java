@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.cactoos.Proc;
+
+/**
+ * Files of the directory tree, processed concurrently on a bounded pool of threads.
+ *
+ * <p>Files are submitted in the order of their paths and each file
+ * is processed independently, so a failure of one of them doesn't stop
+ * the others. All the failures are reported after the whole tree
+ * is processed.</p>
+ *
+ * <p>No more than two files per thread are submitted ahead, so while
+ * one file of a thread is transformed, the next one is ready to be read,
+ * and neither the queue of the pool nor the results grow with the number
+ * of files.</p>
+ *
+ * @since 0.0.4
+ */
+final class Batch {
+
+    /**
+     * Root of the directory tree.
+     */
+    private final Path dir;
+
+    /**
+     * Number of threads.
+     */
+    private final int threads;
+
+    /**
+     * Ctor.
+     *
+     * @param dir Root of the directory tree
+     * @param threads Number of threads
+     */
+    Batch(final Path dir, final int threads) {
+        this.dir = dir;
+        this.threads = threads;
+    }
+
+    /**
+     * Regular files of the directory tree.
+     *
+     * @param dir Root of the directory tree
+     * @return Paths of the files in order
+     * @throws IOException If fails to list
+     */
+    static List<Path> files(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Name of the file relative to the root of the tree, with forward slashes,
+     * as it is mirrored in the target directory.
+     *
+     * @param dir Root of the directory tree
+     * @param path Path to the file
+     * @return Relative name
+     */
+    static String name(final Path dir, final Path path) {
+        return dir.relativize(path).toString().replace('\\', '/');
+    }
+
+    /**
+     * Applies the procedure to each file of the directory tree.
+     *
+     * @param proc Procedure for one file
+     * @throws IOException If some files failed
+     */
+    void exec(final Proc<Path> proc) throws IOException {
+        final List<Path> paths = Batch.files(this.dir);
+        final int size = Math.max(1, Math.min(this.threads, paths.size()));
+        final ExecutorService service = Executors.newFixedThreadPool(size);
+        final Semaphore ahead = new Semaphore(size * 2);
+        final Map<Path, Throwable> failed = new ConcurrentSkipListMap<>();
+        try {
+            for (final Path path : paths) {
+                ahead.acquire();
+                service.execute(
+                    () -> {
+                        try {
+                            proc.exec(path);
+                        } catch (final Exception ex) {
+                            Logger.error(
+                                this, "Failed to process %s: %[exception]s", path, ex
+                            );
+                            failed.put(path, ex);
+                        } finally {
+                            ahead.release();
+                        }
+                    }
+                );
+            }
+            service.shutdown();
+            service.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("Interrupted while processing %s", this.dir), ex);
+        } finally {
+            service.shutdownNow();
+        }
+        if (!failed.isEmpty()) {
+            final List<String> names = new ArrayList<>(failed.size());
+            for (final Path path : failed.keySet()) {
+                names.add(Batch.name(this.dir, path));
+            }
+            throw new IOException(
+                String.format("Failed to process %d file(s): %s", failed.size(), names),
+                failed.values().iterator().next()
+            );
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import com.yegor256.xsline.StLambda;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Limits of time, iterations and versions of the rule 1-2 for each file.
+ *
+ * <p>The rule 1-2 is applied until all the {@code <obj/>} elements
+ * of {@code <speco/>} are replaced by their versions, and deeply nested
+ * inferred types may need a lot of iterations and versions. The budget
+ * of a file is started by {@link BudgetSpeco} with the name of the file
+ * and is kept by the thread, which specializes it, until it is stopped.
+ * The tasks, which the thread hands to other threads meanwhile, like the
+ * components of {@link SplitSpeco}, carry it, see {@link #carried(Callable)},
+ * so the parts of a split file share the budget of the file. When the budget is spent, the iteration throws
+ * {@link Exceeded}, and so do all the next iterations and stages of the file.</p>
+ *
+ * <p>The time is checked between the iterations and before each stage,
+ * see {@link #timed(Shift)}: one iteration or stage is not interrupted.</p>
+ *
+ * <p>Zero means no limit. Use {@link #NONE} to limit nothing.</p>
+ *
+ * @since 0.0.4
+ */
+final class Budget {
+
+    /**
+     * Budget without limits.
+     */
+    static final Budget NONE = new Budget(0L, 0, 0);
+
+    /**
+     * Budget spent by the file of the current thread, if it is started.
+     */
+    private static final ThreadLocal<Budget.Spent> CURRENT = new ThreadLocal<>();
+
+    /**
+     * XPath evaluators of Saxon, for the compact trees, one per thread.
+     */
+    private static final ThreadLocal<XPath> TREES =
+        ThreadLocal.withInitial(Stylesheets::xpath);
+
+    /**
+     * Time of a file in milliseconds.
+     */
+    private final long millis;
+
+    /**
+     * Iterations of a file.
+     */
+    private final int iterations;
+
+    /**
+     * Versions of a file.
+     */
+    private final int versions;
+
+    /**
+     * Ctor.
+     *
+     * @param millis Time of a file in milliseconds
+     * @param iterations Iterations of a file
+     * @param versions Versions of a file
+     */
+    Budget(final long millis, final int iterations, final int versions) {
+        this.millis = millis;
+        this.iterations = iterations;
+        this.versions = versions;
+    }
+
+    /**
+     * Whether anything is limited.
+     *
+     * @return TRUE if there is a limit
+     */
+    boolean limited() {
+        return this.millis > 0L || this.iterations > 0 || this.versions > 0;
+    }
+
+    /**
+     * Starts spending the budget of the file by the current thread.
+     *
+     * @param file Name of the file
+     */
+    void start(final String file) {
+        Budget.CURRENT.set(new Spent(file));
+    }
+
+    /**
+     * Stops spending the budget of the file by the current thread.
+     */
+    void stop() {
+        Budget.CURRENT.remove();
+    }
+
+    /**
+     * Task, which spends the budget of the file of the current thread,
+     * in whatever thread it runs.
+     *
+     * @param task Task
+     * @param <T> Type of the result
+     * @return Task with the budget
+     */
+    static <T> Callable<T> carried(final Callable<T> task) {
+        final Budget.Spent spent = Budget.CURRENT.get();
+        return () -> {
+            if (spent != null) {
+                Budget.CURRENT.set(spent);
+            }
+            try {
+                return task.call();
+            } finally {
+                Budget.CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Counts one iteration of the file of the current thread.
+     *
+     * @param added Number of versions the iteration adds, negative if it removes them
+     * @throws Exceeded If the budget is spent
+     */
+    void iteration(final long added) {
+        final Budget.Spent spent = Budget.CURRENT.get();
+        if (spent != null && spent.of(this)) {
+            spent.iteration(added);
+        }
+    }
+
+    /**
+     * Checks the time of the file of the current thread, before a stage.
+     *
+     * @throws Exceeded If the budget is spent
+     */
+    private static void deadline() {
+        final Budget.Spent spent = Budget.CURRENT.get();
+        if (spent != null) {
+            spent.iteration(0L, false);
+        }
+    }
+
+    /**
+     * Shift, which checks the time of the file of the current thread
+     * before it is applied, to be used for each stage of specialization.
+     *
+     * @param shift Stage
+     * @return Stage, which is not applied when the time is over
+     */
+    static Shift timed(final Shift shift) {
+        return new StLambda(
+            shift::uid,
+            (position, xml) -> {
+                Budget.deadline();
+                return shift.apply(position, xml);
+            }
+        );
+    }
+
+    /**
+     * Shift, which counts each of its applications as an iteration,
+     * to be used inside {@link com.yegor256.xsline.StEndless}.
+     *
+     * @param shift Shift, which applies the rule 1-2
+     * @return Counted shift
+     */
+    Shift iterated(final Shift shift) {
+        return new StLambda(
+            shift::uid,
+            (position, xml) -> {
+                final XML output = shift.apply(position, xml);
+                if (this.versions > 0) {
+                    this.iteration(Budget.versions(output) - Budget.versions(xml));
+                } else {
+                    this.iteration(0L);
+                }
+                return output;
+            }
+        );
+    }
+
+    /**
+     * Number of the versions in {@code <speco/>} of the document.
+     *
+     * @param xml Document
+     * @return Number of versions
+     */
+    private static long versions(final XML xml) {
+        long count = 0L;
+        if (xml instanceof XmlTree) {
+            try {
+                count = ((Double) Budget.TREES.get().evaluate(
+                    "count(/program/speco/version)", XmlTree.source(xml), XPathConstants.NUMBER
+                )).longValue();
+            } catch (final XPathExpressionException ex) {
+                throw new IllegalStateException("Failed to count the versions", ex);
+            }
+        } else {
+            final Node node = xml.node();
+            final Node root;
+            if (node instanceof Document) {
+                root = ((Document) node).getDocumentElement();
+            } else {
+                root = node;
+            }
+            final Element speco = Dom.first(root, "speco");
+            if (speco != null) {
+                count = Dom.children(speco, "version").size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Budget, which is spent by one file.
+     *
+     * @since 0.0.4
+     */
+    private final class Spent {
+
+        /**
+         * Name of the file.
+         */
+        private final String file;
+
+        /**
+         * Time, when the file was started, in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * Iterations so far.
+         */
+        private final AtomicInteger iterations;
+
+        /**
+         * Versions so far.
+         */
+        private final AtomicLong versions;
+
+        /**
+         * Which limit is exceeded, or NULL if none.
+         */
+        private volatile String exceeded;
+
+        /**
+         * Ctor.
+         *
+         * @param file Name of the file
+         */
+        Spent(final String file) {
+            this.file = file;
+            this.start = System.nanoTime();
+            this.iterations = new AtomicInteger();
+            this.versions = new AtomicLong();
+        }
+
+        /**
+         * Whether it is the budget of the file.
+         *
+         * @param budget Budget
+         * @return TRUE if it is spent on that budget
+         */
+        boolean of(final Budget budget) {
+            return Budget.this == budget;
+        }
+
+        /**
+         * Counts one iteration.
+         *
+         * @param added Number of versions the iteration adds
+         * @throws Exceeded If the budget is spent
+         */
+        void iteration(final long added) {
+            this.iteration(added, true);
+        }
+
+        /**
+         * Checks the budget, counting one iteration or not.
+         *
+         * @param added Number of versions the iteration adds
+         * @param counted Whether to count it as an iteration
+         * @throws Exceeded If the budget is spent
+         */
+        void iteration(final long added, final boolean counted) {
+            final int count;
+            if (counted) {
+                count = this.iterations.incrementAndGet();
+            } else {
+                count = this.iterations.get();
+            }
+            final long total = this.versions.addAndGet(added);
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start);
+            if (this.exceeded == null) {
+                if (Budget.this.millis > 0L && elapsed > Budget.this.millis) {
+                    this.exceeded = String.format("more than %d ms", Budget.this.millis);
+                } else if (Budget.this.iterations > 0 && count > Budget.this.iterations) {
+                    this.exceeded = String.format(
+                        "more than %d iterations", Budget.this.iterations
+                    );
+                } else if (Budget.this.versions > 0 && total > Budget.this.versions) {
+                    this.exceeded = String.format(
+                        "more than %d versions", Budget.this.versions
+                    );
+                }
+            }
+            if (this.exceeded != null) {
+                throw new Exceeded(this.file, this.exceeded);
+            }
+        }
+    }
+
+    /**
+     * Exception, which cancels the specialization of the file,
+     * when its budget is spent.
+     *
+     * @since 0.0.4
+     */
+    static final class Exceeded extends RuntimeException {
+
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 0x7e5a2b1c9d3f4e60L;
+
+        /**
+         * Name of the file.
+         */
+        private final String file;
+
+        /**
+         * Ctor.
+         *
+         * @param file Name of the file
+         * @param limit Which limit is exceeded
+         */
+        Exceeded(final String file, final String limit) {
+            super(limit);
+            this.file = file;
+        }
+
+        /**
+         * Name of the file, which spent its budget.
+         *
+         * @return Name
+         */
+        String file() {
+            return this.file;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Xsline;
+import java.io.IOException;
+
+/**
+ * Speco, which gives up the specialization of the file, when the file
+ * spends its budget, and returns the program as it is, only with the method
+ * calls wrapped, as in all the outputs.
+ *
+ * <p>The budget is spent by the file with the name, which the speco
+ * is given, see {@link Speco#transform(String, XML)}. The cancellation
+ * is logged and recorded as {@link CancelEvent}.</p>
+ *
+ * @since 0.0.4
+ */
+final class BudgetSpeco implements Speco {
+
+    /**
+     * Encapsulated speco.
+     */
+    private final Speco origin;
+
+    /**
+     * Budget of each file.
+     */
+    private final Budget budget;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco
+     * @param budget Budget of each file, the same as the shift of the rule 1-2 spends
+     */
+    BudgetSpeco(final Speco origin, final Budget budget) {
+        this.origin = origin;
+        this.budget = budget;
+    }
+
+    @Override
+    public XML transform(final XML xml) throws IOException {
+        return this.transform("", xml);
+    }
+
+    @Override
+    public XML transform(final String name, final XML xml) throws IOException {
+        final CancelEvent event = new CancelEvent();
+        event.begin();
+        this.budget.start(name);
+        XML result;
+        try {
+            result = this.origin.transform(name, xml);
+        } catch (final Budget.Exceeded ex) {
+            Logger.warn(
+                this, "Specialization of %s is cancelled after %s, the program is kept as it is",
+                ex.file(), ex.getMessage()
+            );
+            event.commit(ex.file(), ex.getMessage());
+            result = new Xsline(
+                new StGuarded(StGuarded.METHODS, new StCompiled(Stylesheets.WRAP))
+            ).pass(xml);
+        } finally {
+            this.budget.stop();
+        }
+        return result;
+    }
+}
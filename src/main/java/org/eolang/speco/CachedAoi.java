@@ -0,0 +1,320 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.xml.sax.SAXException;
+
+/**
+ * AOI tool with the results kept on disk between the runs.
+ *
+ * <p>Types of the free attributes of one program are inferred from
+ * the objects of all the programs, so the entry of each program is keyed
+ * by the versions of AOI and DDR, by the interface of all the programs,
+ * by its own name and shape and by the shapes of the programs,
+ * which refer to its objects. The shape is the nesting, names, bases and
+ * other attributes of the objects, but neither the lines nor the data,
+ * nor the attributes of the programs themselves, like the time of parsing.
+ * The interface is the part of the shape, which the attributes of the
+ * objects are inferred from: the abstract objects, the names of their
+ * attributes and the whole decoratees. So a change of the body of an
+ * attribute makes AOI run again only for the program itself and for
+ * the ones it refers to, while a change of the interface makes it run
+ * for all of them.</p>
+ *
+ * <p>AOI still builds the graph of all the programs, since the types
+ * may come from any of them, but adds the {@code <aoi/>} section only
+ * to the programs without entries; the others are read from the entries.</p>
+ *
+ * <p>The entries are stored in the target directory as {@value #NAME},
+ * one file per program; the ones, which are not used by the current run,
+ * are deleted.</p>
+ *
+ * @since 0.0.4
+ */
+final class CachedAoi {
+
+    /**
+     * Name of the directory with the entries in the target directory.
+     */
+    static final String NAME = ".speco-aoi";
+
+    /**
+     * Parsed programs by their names.
+     */
+    private final Map<String, Document> programs;
+
+    /**
+     * Directory with the entries.
+     */
+    private final Path dir;
+
+    /**
+     * Keys of the entries of the last run, by the names of the programs.
+     */
+    private final Map<String, String> keys;
+
+    /**
+     * Ctor.
+     *
+     * @param programs Parsed programs by their names
+     * @param target Target directory
+     */
+    CachedAoi(final Map<String, Document> programs, final Path target) {
+        this.programs = programs;
+        this.dir = target.resolve(CachedAoi.NAME);
+        this.keys = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Adds the {@code <aoi/>} section to each program, from its entry
+     * if it is there, or by AOI otherwise.
+     *
+     * @return TRUE if AOI was run
+     * @throws IOException If fails to read or write the entries
+     */
+    boolean exec() throws IOException {
+        final Map<String, Document> sorted = new TreeMap<>(this.programs);
+        final MessageDigest face = Manifest.sha();
+        face.update(Manifest.version("aoi").getBytes(StandardCharsets.UTF_8));
+        face.update(Manifest.version("ddr").getBytes(StandardCharsets.UTF_8));
+        final Map<String, byte[]> shapes = new HashMap<>(sorted.size());
+        final Map<String, Set<String>> names = new HashMap<>(sorted.size());
+        final Map<String, Set<String>> bases = new HashMap<>(sorted.size());
+        for (final Map.Entry<String, Document> entry : sorted.entrySet()) {
+            final MessageDigest shape = Manifest.sha();
+            final Set<String> declared = new HashSet<>(0);
+            final Set<String> referred = new HashSet<>(0);
+            final Element objects = Dom.first(entry.getValue().getDocumentElement(), "objects");
+            if (objects != null) {
+                CachedAoi.update(shape, objects);
+                face.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                CachedAoi.face(face, objects);
+                for (final Element obj : Dom.children(objects, "o")) {
+                    declared.add(obj.getAttribute("name"));
+                }
+                for (final Element obj : Dom.descendants(objects, "o")) {
+                    final String base = obj.getAttribute("base");
+                    referred.add(base.substring(base.lastIndexOf('.') + 1));
+                }
+            }
+            shapes.put(entry.getKey(), shape.digest());
+            names.put(entry.getKey(), declared);
+            bases.put(entry.getKey(), referred);
+        }
+        final byte[] common = face.digest();
+        final DocumentBuilder builder;
+        try {
+            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (final ParserConfigurationException ex) {
+            throw new IllegalStateException("Failed to create DOM builder", ex);
+        }
+        final Map<String, Path> entries = new LinkedHashMap<>(sorted.size());
+        final Set<String> misses = new HashSet<>(0);
+        for (final String name : sorted.keySet()) {
+            final MessageDigest digest = Manifest.sha();
+            digest.update(common);
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update(shapes.get(name));
+            for (final String other : sorted.keySet()) {
+                if (!other.equals(name)
+                    && !Collections.disjoint(bases.get(other), names.get(name))) {
+                    digest.update(other.getBytes(StandardCharsets.UTF_8));
+                    digest.update(shapes.get(other));
+                }
+            }
+            final String key = Manifest.hex(digest);
+            this.keys.put(name, key);
+            final Path entry = this.dir.resolve(String.format("%s.xml", key));
+            entries.put(name, entry);
+            if (!Files.exists(entry)) {
+                misses.add(name);
+            }
+        }
+        if (!misses.isEmpty()) {
+            new Aoi(this.programs, misses).exec();
+            Files.createDirectories(this.dir);
+            final Transformer transformer = Stylesheets.identity();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            for (final String name : misses) {
+                CachedAoi.save(transformer, sorted.get(name), entries.get(name));
+            }
+        }
+        for (final Map.Entry<String, Path> entry : entries.entrySet()) {
+            if (!misses.contains(entry.getKey())) {
+                CachedAoi.load(builder, sorted.get(entry.getKey()), entry.getValue());
+            }
+        }
+        this.prune(new HashSet<>(entries.values()));
+        return !misses.isEmpty();
+    }
+
+    /**
+     * Key of the entry of the program in the last run: the programs with
+     * the same key get the same {@code <aoi/>} section.
+     *
+     * @param name Name of the program
+     * @return Key, or NULL if the program was not in the run
+     */
+    String key(final String name) {
+        return this.keys.get(name);
+    }
+
+    /**
+     * Deletes the entries, which are not used by the current run.
+     *
+     * @param used Entries of the current run
+     * @throws IOException If fails to delete
+     */
+    private void prune(final Set<Path> used) throws IOException {
+        if (Files.isDirectory(this.dir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(this.dir)) {
+                for (final Path file : files) {
+                    if (!used.contains(file)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the {@code <aoi/>} section from the entry to the program.
+     *
+     * @param builder Builder of DOM
+     * @param doc Program
+     * @param entry Entry
+     * @throws IOException If fails to read the entry
+     */
+    private static void load(final DocumentBuilder builder, final Document doc,
+        final Path entry) throws IOException {
+        final Document aoi;
+        try (InputStream input = Files.newInputStream(entry)) {
+            aoi = builder.parse(input);
+        } catch (final SAXException ex) {
+            throw new IOException(String.format("Failed to read %s", entry), ex);
+        }
+        doc.getDocumentElement().appendChild(doc.adoptNode(aoi.getDocumentElement()));
+    }
+
+    /**
+     * Writes the {@code <aoi/>} section of the program to the entry.
+     *
+     * @param transformer Identity transformer
+     * @param doc Program
+     * @param entry Entry
+     * @throws IOException If fails to write the entry
+     */
+    private static void save(final Transformer transformer, final Document doc,
+        final Path entry) throws IOException {
+        final Element aoi = Dom.first(doc.getDocumentElement(), "aoi");
+        try (OutputStream output = Files.newOutputStream(entry)) {
+            transformer.transform(new DOMSource(aoi), new StreamResult(output));
+        } catch (final TransformerException ex) {
+            throw new IOException(String.format("Failed to write %s", entry), ex);
+        }
+    }
+
+    /**
+     * Updates the digest with the interface of the objects under the element:
+     * the abstract objects, the names of their attributes and the whole
+     * decoratees, which the attributes of the objects are inferred from.
+     *
+     * @param digest Digest
+     * @param element Element
+     */
+    private static void face(final MessageDigest digest, final Element element) {
+        for (final Element child : Dom.children(element, "o")) {
+            if ("@".equals(child.getAttribute("name"))) {
+                CachedAoi.update(digest, child);
+            } else {
+                digest.update((byte) '(');
+                digest.update(
+                    String.format(
+                        "%s %b", child.getAttribute("name"), child.hasAttribute("abstract")
+                    ).getBytes(StandardCharsets.UTF_8)
+                );
+                CachedAoi.face(digest, child);
+                digest.update((byte) ')');
+            }
+        }
+    }
+
+    /**
+     * Updates the digest with the shape of the objects under the element:
+     * their nesting and attributes, except the lines and the positions.
+     *
+     * @param digest Digest
+     * @param element Element
+     */
+    private static void update(final MessageDigest digest, final Element element) {
+        final NamedNodeMap attrs = element.getAttributes();
+        final Map<String, String> sorted = new TreeMap<>();
+        for (int idx = 0; idx < attrs.getLength(); ++idx) {
+            final Attr attr = (Attr) attrs.item(idx);
+            if (!"line".equals(attr.getName()) && !"pos".equals(attr.getName())) {
+                sorted.put(attr.getName(), attr.getValue());
+            }
+        }
+        digest.update((byte) '(');
+        digest.update(element.getTagName().getBytes(StandardCharsets.UTF_8));
+        for (final Map.Entry<String, String> attr : sorted.entrySet()) {
+            digest.update(
+                String.format(" %s=%s", attr.getKey(), attr.getValue())
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        for (final Element child : Dom.children(element, "o")) {
+            CachedAoi.update(digest, child);
+        }
+        digest.update((byte) ')');
+    }
+}
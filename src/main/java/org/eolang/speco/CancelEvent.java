@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of Java Flight Recorder about the file, whose specialization
+ * is cancelled, since it spent its budget, see {@link Budget}.
+ *
+ * @since 0.0.4
+ */
+@Name("org.eolang.speco.Cancel")
+@Label("Speco Cancel")
+final class CancelEvent extends SpecoEvent {
+
+    /**
+     * Which limit is exceeded.
+     */
+    @Label("Reason")
+    String reason;
+
+    /**
+     * Commits the event, if it is recorded.
+     *
+     * @param name Name of the file
+     * @param limit Which limit is exceeded
+     */
+    void commit(final String name, final String limit) {
+        this.reason = limit;
+        this.commit(name, "budget", () -> 0L);
+    }
+}
@@ -24,9 +24,6 @@
 package org.eolang.speco;
 
 import com.jcabi.xml.XML;
-import com.yegor256.xsline.Shift;
-import com.yegor256.xsline.StClasspath;
-import com.yegor256.xsline.TrDefault;
 import com.yegor256.xsline.Xsline;
 import java.io.IOException;
 
@@ -42,25 +39,51 @@ final class ClearXmirSpeco implements Speco {
      */
     private final Speco origin;
 
+    /**
+     * Metrics of the shifts.
+     */
+    private final Metrics metrics;
+
     /**
      * Ctor.
      *
      * @param origin Encapsulated speco.
      */
     ClearXmirSpeco(final Speco origin) {
+        this(origin, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco.
+     * @param metrics Metrics of the shifts
+     */
+    ClearXmirSpeco(final Speco origin, final Metrics metrics) {
         this.origin = origin;
+        this.metrics = metrics;
     }
 
     @Override
     public XML transform(final XML xml) throws IOException {
+        return this.transform("", xml);
+    }
+
+    @Override
+    public XML transform(final String name, final XML xml) throws IOException {
         return new Xsline(
-            new TrDefault<>(new StClasspath("/org/eolang/speco/clear.xsl"))
-            ).pass(
-                new Xsline(
-                    new TrDefault<Shift>().with(
-                        new StClasspath("/org/eolang/parser/wrap-method-calls.xsl")
-                    )
-                ).pass(this.origin.transform(xml))
-            );
+            this.metrics.measured(
+                new StGuarded(
+                    "/program/speco|/program/aoi",
+                    new StCompiled(Stylesheets.CLEAR)
+                )
+            )
+        ).pass(
+            new Xsline(
+                this.metrics.measured(
+                    new StGuarded(StGuarded.METHODS, new StCompiled(Stylesheets.WRAP))
+                )
+            ).pass(this.origin.transform(name, xml))
+        );
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Thin client of {@link Daemon}, listening on the loopback interface.
+ *
+ * <p>It loads neither the stylesheets nor the parser, it only sends
+ * the token of the daemon, see {@link Daemon#token(int)}, and
+ * the arguments with the working directory, and waits for the exit code:
+ * {@code java -cp speco.jar org.eolang.speco.Client 8090 --source=in --target=out}.</p>
+ *
+ * @since 0.0.4
+ */
+public final class Client {
+
+    /**
+     * Port of the daemon.
+     */
+    private final int port;
+
+    /**
+     * File with the token of the daemon.
+     */
+    private final Path token;
+
+    /**
+     * Ctor.
+     *
+     * @param port Port of the daemon
+     */
+    Client(final int port) {
+        this(port, Daemon.token(port));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param port Port of the daemon
+     * @param token File with the token of the daemon
+     */
+    Client(final int port, final Path token) {
+        this.port = port;
+        this.token = token;
+    }
+
+    /**
+     * Sends the arguments to the daemon.
+     *
+     * @param args Arguments of speco
+     * @return Exit code
+     * @throws IOException If fails to read the token or to connect
+     */
+    int exec(final String... args) throws IOException {
+        final String secret = new String(Files.readAllBytes(this.token), StandardCharsets.UTF_8);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port)) {
+            final PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)
+            );
+            writer.println(secret);
+            writer.println(
+                String.join(
+                    Daemon.TAB,
+                    Paths.get("").toAbsolutePath().toString(),
+                    String.join(Daemon.TAB, args)
+                )
+            );
+            writer.println();
+            writer.flush();
+            final String reply = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+            ).readLine();
+            if (reply == null) {
+                throw new IOException(
+                    String.format("No reply from the daemon on port %d", this.port)
+                );
+            }
+            return Integer.parseInt(reply);
+        }
+    }
+
+    /**
+     * Main entrance for Java command line.
+     *
+     * @param args Port of the daemon and the args of speco
+     * @throws IOException If fails to connect
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Port of the daemon is not given");
+        }
+        System.exit(
+            new Client(Integer.parseInt(args[0])).exec(Arrays.copyOfRange(args, 1, args.length))
+        );
+    }
+}
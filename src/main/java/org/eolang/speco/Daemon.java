@@ -0,0 +1,259 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import picocli.CommandLine;
+
+/**
+ * Long-running speco, which takes requests one by one.
+ *
+ * <p>A request is a line: the working directory and the arguments of speco,
+ * all separated by tabs. Relative paths in the arguments are resolved
+ * against the working directory. The reply is a line with the exit code.
+ * Since the stylesheets are compiled once per JVM, see {@link Stylesheets},
+ * and the code stays JIT-compiled, requests after the first one do not pay
+ * for JVM startup and compilation of the stylesheets.</p>
+ *
+ * <p>The requests are read from a local socket on the loopback interface,
+ * see {@link Client}, or from standard input, when no port is given.
+ * In the latter case, anything else printed to standard output, like logs,
+ * goes to standard error, in order not to mix with the replies.</p>
+ *
+ * <p>Any local user may connect to the port, so the daemon writes a random
+ * token to a file, which only its owner can read, see {@link #token(int)},
+ * and closes connections, which do not start with the line of this token.
+ * Since the connections are served one at a time, a connection, which sends
+ * nothing for {@value #TIMEOUT} milliseconds, is closed too.</p>
+ *
+ * @since 0.0.4
+ */
+final class Daemon {
+
+    /**
+     * Separator of the fields of the request.
+     */
+    static final String TAB = "\t";
+
+    /**
+     * Milliseconds to wait for the next line from a connection.
+     */
+    static final int TIMEOUT = 10_000;
+
+    /**
+     * Port on the loopback interface, or zero to read standard input.
+     */
+    private final int port;
+
+    /**
+     * File with the token for the connections.
+     */
+    private final Path token;
+
+    /**
+     * Ctor.
+     *
+     * @param port Port on the loopback interface, or zero to read standard input
+     */
+    Daemon(final int port) {
+        this(port, Daemon.token(port));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param port Port on the loopback interface, or zero to read standard input
+     * @param token File with the token for the connections
+     */
+    Daemon(final int port, final Path token) {
+        this.port = port;
+        this.token = token;
+    }
+
+    /**
+     * Serves the requests until standard input is closed, or forever
+     * if the port is given.
+     *
+     * @throws IOException If fails to read or write
+     */
+    void exec() throws IOException {
+        if (this.port == 0) {
+            final PrintStream replies = System.out;
+            System.setOut(System.err);
+            Daemon.serve(System.in, replies);
+        } else {
+            try (ServerSocket server = new ServerSocket(
+                this.port, 0, InetAddress.getLoopbackAddress()
+            )) {
+                final byte[] secret = this.secret();
+                try {
+                    while (!server.isClosed()) {
+                        try (Socket socket = server.accept()) {
+                            socket.setSoTimeout(Daemon.TIMEOUT);
+                            Daemon.serve(socket, secret);
+                        } catch (final IOException ex) {
+                            Logger.warn(
+                                this, "Connection to port %d failed: %[exception]s",
+                                this.port, ex
+                            );
+                        }
+                    }
+                } finally {
+                    Files.deleteIfExists(this.token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves the requests from the stream until it ends or an empty line is read.
+     *
+     * @param input Requests
+     * @param output Replies
+     * @throws IOException If fails to read or write
+     */
+    static void serve(final InputStream input, final OutputStream output) throws IOException {
+        Daemon.serve(
+            new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)),
+            output
+        );
+    }
+
+    /**
+     * File with the token for the connections to the port.
+     *
+     * @param port Port on the loopback interface
+     * @return Path to the file in the home directory of the user
+     */
+    static Path token(final int port) {
+        return Paths.get(
+            System.getProperty("user.home"), ".speco", String.format("daemon-%d", port)
+        );
+    }
+
+    /**
+     * Generates a new token and writes it to the file, readable by the owner only.
+     *
+     * @return Token
+     * @throws IOException If fails to write
+     */
+    private byte[] secret() throws IOException {
+        final byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        final byte[] secret = Base64.getUrlEncoder().withoutPadding().encode(random);
+        Files.createDirectories(this.token.getParent());
+        Files.deleteIfExists(this.token);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(
+                this.token,
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))
+            );
+        } else {
+            Files.createFile(this.token);
+        }
+        Files.write(this.token, secret);
+        return secret;
+    }
+
+    /**
+     * Serves the requests from the socket, if it starts with the token.
+     *
+     * @param socket Socket
+     * @param secret Token
+     * @throws IOException If fails to read or write
+     */
+    private static void serve(final Socket socket, final byte[] secret) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+        );
+        final String line = reader.readLine();
+        if (line != null
+            && MessageDigest.isEqual(secret, line.getBytes(StandardCharsets.UTF_8))) {
+            Daemon.serve(reader, socket.getOutputStream());
+        } else {
+            Logger.warn(Daemon.class, "Connection without the token is closed");
+        }
+    }
+
+    /**
+     * Serves the requests from the reader until it ends or an empty line is read.
+     *
+     * @param reader Requests
+     * @param output Replies
+     * @throws IOException If fails to read or write
+     */
+    private static void serve(final BufferedReader reader, final OutputStream output)
+        throws IOException {
+        final PrintWriter writer = new PrintWriter(
+            new OutputStreamWriter(output, StandardCharsets.UTF_8)
+        );
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()) {
+            writer.println(Daemon.reply(line));
+            writer.flush();
+            line = reader.readLine();
+        }
+    }
+
+    /**
+     * Runs speco for the request.
+     *
+     * @param request Working directory and arguments, separated by tabs
+     * @return Exit code
+     */
+    private static int reply(final String request) {
+        final String[] fields = request.split(Daemon.TAB);
+        final String[] args = Arrays.copyOfRange(fields, 1, fields.length);
+        final int code;
+        if (Arrays.stream(args).anyMatch(
+            arg -> arg.startsWith("--daemon") || arg.startsWith("--watch")
+        )) {
+            code = CommandLine.ExitCode.USAGE;
+        } else {
+            code = new CommandLine(new Main(Paths.get(fields[0]))).execute(args);
+        }
+        return code;
+    }
+}
@@ -24,23 +24,12 @@
 package org.eolang.speco;
 
 import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
 import com.yegor256.xsline.Shift;
-import com.yegor256.xsline.StClasspath;
 import com.yegor256.xsline.StEndless;
 import com.yegor256.xsline.TrDefault;
-import com.yegor256.xsline.Train;
+import com.yegor256.xsline.TrLambda;
 import com.yegor256.xsline.Xsline;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import org.apache.commons.io.FileUtils;
-import org.cactoos.io.InputOf;
-import org.cactoos.io.OutputTo;
-import org.eolang.parser.Syntax;
-import org.eolang.parser.XMIR;
-import org.objectionary.aoi.launch.LauncherKt;
 
 /**
  * The class encapsulating specialization logic for xmir programs.
@@ -49,22 +38,138 @@ import org.objectionary.aoi.launch.LauncherKt;
  */
 final class DefaultSpeco implements Speco {
 
+    /**
+     * Shift, which applies the rule 1-2 of specialization.
+     */
+    private final Shift specialization;
+
+    /**
+     * Metrics of the shifts.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     */
+    DefaultSpeco() {
+        this(new StSpecialization());
+    }
+
+    /**
+     * Ctor.
+     *
+     * <p>Use {@link DefaultSpeco#reference()} as the shift to apply
+     * the rule by the reference stylesheet.</p>
+     *
+     * @param specialization Shift, which applies the rule 1-2 of specialization
+     */
+    DefaultSpeco(final Shift specialization) {
+        this(specialization, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param specialization Shift, which applies the rule 1-2 of specialization
+     * @param metrics Metrics of the shifts
+     */
+    DefaultSpeco(final Shift specialization, final Metrics metrics) {
+        this.specialization = specialization;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reference implementation of the rule 1-2 of specialization,
+     * which applies the stylesheet until the document stops changing.
+     *
+     * @return Shift
+     */
+    static Shift reference() {
+        return DefaultSpeco.reference(Metrics.NONE);
+    }
+
+    /**
+     * Reference implementation of the rule 1-2 of specialization,
+     * which counts the iterations.
+     *
+     * @param metrics Metrics to count the iterations in
+     * @return Shift
+     */
+    static Shift reference(final Metrics metrics) {
+        return DefaultSpeco.reference(metrics, Budget.NONE);
+    }
+
+    /**
+     * Reference implementation of the rule 1-2 of specialization,
+     * which counts the iterations and spends the budget of the file on them.
+     *
+     * @param metrics Metrics to count the iterations in
+     * @param budget Budget of the file
+     * @return Shift
+     */
+    static Shift reference(final Metrics metrics, final Budget budget) {
+        return new StEndless(
+            budget.iterated(
+                metrics.iterated(new StCompiled("/org/eolang/speco/1-2-specialization.xsl"))
+            )
+        );
+    }
+
     @Override
     public XML transform(final XML xml) throws IOException {
-        return new Xsline(new TrDefault<Shift>()
-            .with(new StClasspath("/org/eolang/speco/1-1-coping.xsl"))
-            .with(new StEndless(new StClasspath("/org/eolang/speco/1-2-specialization.xsl")))
-            .with(new StClasspath("/org/eolang/speco/1-3-extension.xsl"))
-            .with(new StClasspath("/org/eolang/speco/2-1-substitute-applications.xsl"))
-            .with(new StClasspath("/org/eolang/speco/3-1-add-with.xsl"))
-            .with(new StClasspath("/org/eolang/speco/4-1-fence-tuples.xsl"))
-            .with(new StClasspath("/org/eolang/speco/5-1-substitute-fence.xsl"))
-            .with(new StClasspath("/org/eolang/speco/6-1-substitute-dominant.xsl"))
-            .with(new StClasspath("/org/eolang/speco/7-1-substitute-returned.xsl"))
+        return new Xsline(
+            new TrLambda(
+                new TrDefault<Shift>()
+                    .with(new StCompiled("/org/eolang/speco/1-1-coping.xsl"))
+                    .with(new StGuarded("/program/speco/obj", this.specialization))
+                    .with(
+                        new StGuarded(
+                            "/program/speco/version/o",
+                            new StCompiled("/org/eolang/speco/1-3-extension.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/speco/version/o",
+                            new StCompiled("/org/eolang/speco/2-1-substitute-applications.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/speco/version/o",
+                            new StCompiled("/org/eolang/speco/3-1-add-with.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/objects//o[@base='memory']",
+                            new StCompiled("/org/eolang/speco/4-1-fence-tuples.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/objects//o[@fence]",
+                            new StCompiled("/org/eolang/speco/5-1-substitute-fence.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/objects//o[@fence_tuple]",
+                            new StCompiled("/org/eolang/speco/6-1-substitute-dominant.xsl")
+                        )
+                    )
+                    .with(
+                        new StGuarded(
+                            "/program/objects//o[@fence]",
+                            new StCompiled("/org/eolang/speco/7-1-substitute-returned.xsl")
+                        )
+                    ),
+                shift -> this.metrics.measured(Budget.timed(shift))
+            )
         ).pass(
             new Xsline(
-                new TrDefault<Shift>().with(
-                    new StClasspath("/org/eolang/parser/wrap-method-calls.xsl")
+                this.metrics.measured(
+                    new StGuarded(StGuarded.METHODS, new StCompiled(Stylesheets.WRAP))
                 )
             ).pass(xml)
         );
@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Operations on DOM, shared by the shifts, which modify the document in Java.
+ *
+ * @since 0.0.4
+ */
+final class Dom {
+
+    /**
+     * Ctor.
+     */
+    private Dom() {
+    }
+
+    /**
+     * Copies the document, so that the origin stays untouched, and removes
+     * whitespace-only text nodes from it, as {@code xsl:strip-space} does.
+     *
+     * @param node Document or element
+     * @return Copy of the document
+     */
+    static Document copy(final Node node) {
+        final Document doc;
+        if (node instanceof Document) {
+            doc = (Document) node.cloneNode(true);
+        } else {
+            try {
+                doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            } catch (final ParserConfigurationException ex) {
+                throw new IllegalStateException("Failed to create document", ex);
+            }
+            doc.appendChild(doc.importNode(node, true));
+        }
+        Dom.strip(doc);
+        return doc;
+    }
+
+    /**
+     * Copies the document, building DOM right from the compact tree,
+     * if the document keeps one, see {@link XmlTree}.
+     *
+     * @param xml Document
+     * @return Copy of the document
+     */
+    static Document copy(final XML xml) {
+        final Document doc;
+        if (xml instanceof XmlTree) {
+            doc = ((XmlTree) xml).document();
+            Dom.strip(doc);
+        } else {
+            doc = Dom.copy(xml.node());
+        }
+        return doc;
+    }
+
+    /**
+     * Child elements with the name.
+     *
+     * @param parent Parent element
+     * @param name Name of the children
+     * @return Children in the document order
+     */
+    static List<Element> children(final Node parent, final String name) {
+        final List<Element> children = new ArrayList<>(0);
+        for (Node child = parent.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                && name.equals(child.getNodeName())) {
+                children.add((Element) child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * First child element with the name.
+     *
+     * @param parent Parent element
+     * @param name Name of the child
+     * @return Child or NULL if there is no such child
+     */
+    static Element first(final Node parent, final String name) {
+        Element first = null;
+        for (Node child = parent.getFirstChild(); child != null && first == null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                && name.equals(child.getNodeName())) {
+                first = (Element) child;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Descendant elements with the name.
+     *
+     * @param parent Parent element
+     * @param name Name of the descendants
+     * @return Descendants in the document order
+     */
+    static List<Element> descendants(final Element parent, final String name) {
+        final List<Element> all = new ArrayList<>(0);
+        Dom.collect(parent, name, all);
+        return all;
+    }
+
+    /**
+     * Creates new element without namespace.
+     *
+     * @param doc Document
+     * @param attrs Names and values of the attributes, one after another
+     * @return Element {@code <o/>}
+     */
+    static Element object(final Document doc, final String... attrs) {
+        final Element element = doc.createElementNS(null, "o");
+        for (int idx = 0; idx < attrs.length; idx += 2) {
+            Dom.attr(element, attrs[idx], attrs[idx + 1]);
+        }
+        return element;
+    }
+
+    /**
+     * Sets the value of the attribute, existing or new one.
+     *
+     * @param element Element
+     * @param name Name of the attribute
+     * @param value Value
+     */
+    static void attr(final Element element, final String name, final String value) {
+        final Attr attr = element.getAttributeNode(name);
+        if (attr == null) {
+            element.setAttributeNS(null, name, value);
+        } else {
+            attr.setValue(value);
+        }
+    }
+
+    /**
+     * Part of the string before the first dot, as XPath {@code substring-before}.
+     *
+     * @param text String
+     * @return Part or empty string if there is no dot
+     */
+    static String before(final String text) {
+        final int idx = text.indexOf('.');
+        final String before;
+        if (idx < 0) {
+            before = "";
+        } else {
+            before = text.substring(0, idx);
+        }
+        return before;
+    }
+
+    /**
+     * Part of the string after the first dot, as XPath {@code substring-after}.
+     *
+     * @param text String
+     * @return Part or empty string if there is no dot
+     */
+    static String after(final String text) {
+        final int idx = text.indexOf('.');
+        final String after;
+        if (idx < 0) {
+            after = "";
+        } else {
+            after = text.substring(idx + 1);
+        }
+        return after;
+    }
+
+    /**
+     * Removes whitespace-only text nodes from elements.
+     *
+     * @param node Node
+     */
+    private static void strip(final Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            final Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE
+                && node.getNodeType() == Node.ELEMENT_NODE
+                && child.getNodeValue().trim().isEmpty()) {
+                node.removeChild(child);
+            } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                Dom.strip(child);
+            }
+            child = next;
+        }
+    }
+
+    /**
+     * Collects descendant elements with the name.
+     *
+     * @param parent Parent element
+     * @param name Name of the descendants
+     * @param all Descendants found so far
+     */
+    private static void collect(final Element parent, final String name,
+        final List<Element> all) {
+        for (Node child = parent.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                if (name.equals(child.getNodeName())) {
+                    all.add((Element) child);
+                }
+                Dom.collect((Element) child, name, all);
+            }
+        }
+    }
+}
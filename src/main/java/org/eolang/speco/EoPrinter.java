@@ -0,0 +1,403 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import org.apache.commons.text.StringEscapeUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Printer of XMIR as EO source code.
+ *
+ * <p>Walks the program and appends its EO text right to the output,
+ * the same text, which {@code new XMIR(xml).toEO()} produces
+ * with {@code StUnhex} and {@code xmir-to-eo.xsl}, but without
+ * the copies of the document and of the result.</p>
+ *
+ * @since 0.0.4
+ */
+final class EoPrinter {
+
+    /**
+     * End of line.
+     */
+    private static final String EOL = "\n";
+
+    /**
+     * Indentation of the nested objects.
+     */
+    private static final String INDENT = "  ";
+
+    /**
+     * Digits of hexadecimal numbers.
+     */
+    private static final String DIGITS = "0123456789ABCDEF";
+
+    /**
+     * Program in XMIR.
+     */
+    private final XML xml;
+
+    /**
+     * Ctor.
+     *
+     * @param xml Program in XMIR
+     */
+    EoPrinter(final XML xml) {
+        this.xml = xml;
+    }
+
+    /**
+     * Prints the program.
+     *
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    void print(final Appendable out) throws IOException {
+        final Node node = this.xml.node();
+        final Node program;
+        if (node instanceof Document) {
+            program = ((Document) node).getDocumentElement();
+        } else {
+            program = node;
+        }
+        for (final Element license : Dom.children(program, "license")) {
+            EoPrinter.license(license, out);
+        }
+        for (final Element metas : Dom.children(program, "metas")) {
+            EoPrinter.metas(metas, out);
+        }
+        for (final Element objects : Dom.children(program, "objects")) {
+            final List<Element> all = Dom.children(objects, "o");
+            for (int idx = 0; idx < all.size(); ++idx) {
+                EoPrinter.object(all.get(idx), "", idx > 0, out);
+            }
+        }
+    }
+
+    /**
+     * Prints the license as comments.
+     *
+     * @param license Element {@code license}
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void license(final Element license, final Appendable out)
+        throws IOException {
+        final String text = license.getTextContent();
+        if (!text.isEmpty()) {
+            for (final String line : text.split(EoPrinter.EOL, -1)) {
+                out.append("# ").append(line).append(EoPrinter.EOL);
+            }
+        }
+        if (EoPrinter.texts(license) > 0) {
+            out.append(EoPrinter.EOL);
+        }
+    }
+
+    /**
+     * Prints the metas, if there are any.
+     *
+     * @param metas Element {@code metas}
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void metas(final Element metas, final Appendable out) throws IOException {
+        final List<Element> all = Dom.children(metas, "meta");
+        if (!all.isEmpty()) {
+            for (final Element meta : all) {
+                out.append('+');
+                final Element head = Dom.first(meta, "head");
+                if (head != null) {
+                    out.append(head.getTextContent());
+                }
+                final Element tail = Dom.first(meta, "tail");
+                if (tail != null && EoPrinter.texts(tail) > 0) {
+                    out.append(' ').append(tail.getTextContent());
+                }
+                out.append(EoPrinter.EOL);
+            }
+            out.append(EoPrinter.EOL);
+        }
+    }
+
+    /**
+     * Prints the object with its children.
+     *
+     * @param obj Element {@code o}
+     * @param indent Indentation of the object
+     * @param gap Whether the object is separated by an empty line
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void object(final Element obj, final String indent, final boolean gap,
+        final Appendable out) throws IOException {
+        if (!EoPrinter.attribute(obj)) {
+            final List<Element> kids = Dom.children(obj, "o");
+            final String nested = indent.concat(EoPrinter.INDENT);
+            if (obj.getAttribute("base").startsWith(".")) {
+                if (!kids.isEmpty()) {
+                    EoPrinter.object(kids.get(0), indent, false, out);
+                }
+                EoPrinter.line(obj, indent, out);
+                for (final Element kid : kids.subList(Math.min(1, kids.size()), kids.size())) {
+                    EoPrinter.object(kid, nested, false, out);
+                }
+            } else {
+                if (gap) {
+                    out.append(EoPrinter.EOL);
+                }
+                EoPrinter.line(obj, indent, out);
+                for (final Element kid : kids) {
+                    EoPrinter.object(kid, nested, false, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints the line of the object.
+     *
+     * @param obj Element {@code o}
+     * @param indent Indentation of the object
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void line(final Element obj, final String indent, final Appendable out)
+        throws IOException {
+        out.append(indent);
+        EoPrinter.head(obj, out);
+        if (obj.hasAttribute("as")) {
+            out.append(':').append(obj.getAttribute("as"));
+        }
+        if (obj.hasAttribute("name")) {
+            out.append(" > ").append(obj.getAttribute("name"));
+            if (obj.hasAttribute("vararg")) {
+                out.append("...");
+            }
+            if (obj.hasAttribute("const")) {
+                out.append('!');
+            }
+            if (obj.hasAttribute("atom")) {
+                out.append(" /").append(obj.getAttribute("atom"));
+            }
+        }
+        out.append(EoPrinter.EOL);
+    }
+
+    /**
+     * Prints the head of the object: its base, data or free attributes.
+     *
+     * @param obj Element {@code o}
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void head(final Element obj, final Appendable out) throws IOException {
+        final String data = obj.getAttribute("data");
+        if (!obj.hasAttribute("data")) {
+            if (obj.hasAttribute("base")) {
+                out.append(obj.getAttribute("base"));
+            } else {
+                EoPrinter.abstraction(obj, out);
+            }
+        } else if ("tuple".equals(data)) {
+            out.append('*');
+        } else if ("string".equals(data)) {
+            out.append('"').append(EoPrinter.text(obj)).append('"');
+        } else if ("bool".equals(data)) {
+            out.append(EoPrinter.text(obj).toUpperCase(Locale.ENGLISH));
+        } else if ("bytes".equals(data)) {
+            EoPrinter.bytes(obj, out);
+        } else {
+            out.append(EoPrinter.text(obj));
+        }
+    }
+
+    /**
+     * Prints the free attributes of the abstract object.
+     *
+     * @param obj Element {@code o}
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void abstraction(final Element obj, final Appendable out)
+        throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (final Element kid : Dom.children(obj, "o")) {
+            if (EoPrinter.attribute(kid)) {
+                if (!first) {
+                    out.append(' ');
+                }
+                first = false;
+                out.append(kid.getAttribute("name"));
+                if (kid.hasAttribute("vararg")) {
+                    out.append("...");
+                }
+            }
+        }
+        out.append(']');
+    }
+
+    /**
+     * Prints the bytes as the literal of their type, as {@code StUnhex} does,
+     * or as bytes, if the type is unknown.
+     *
+     * @param obj Element {@code o} with bytes
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void bytes(final Element obj, final Appendable out) throws IOException {
+        final String base = obj.getAttribute("base");
+        final String type = base.replaceFirst("^org\\.eolang\\.", "");
+        final String text = EoPrinter.text(obj);
+        final boolean known = "float".equals(type) || "int".equals(type)
+            || "bool".equals(type) || "string".equals(type);
+        if (known && EoPrinter.texts(obj) > 0) {
+            EoPrinter.unhex(type, text.replace(" ", ""), out);
+        } else if ("string".equals(type)) {
+            out.append("\"\"");
+        } else if ("bool".equals(base)) {
+            if ("01".equals(text)) {
+                out.append("TRUE");
+            } else {
+                out.append("FALSE");
+            }
+        } else if ("int".equals(base)) {
+            BigInteger value = BigInteger.ZERO;
+            for (final char chr : text.replace(" ", "").toCharArray()) {
+                value = value.shiftLeft(4).add(
+                    BigInteger.valueOf(Math.max(0, EoPrinter.DIGITS.indexOf(chr)))
+                );
+            }
+            out.append(value.toString());
+        } else if ("float".equals(base)) {
+            out.append(text);
+        } else {
+            out.append(text.replace(' ', '-'));
+            if (text.indexOf(' ') < 0) {
+                out.append('-');
+            }
+        }
+    }
+
+    /**
+     * Prints the literal of the type, encoded by the bytes.
+     *
+     * @param type Type: float, int, bool or string
+     * @param hex Bytes without spaces
+     * @param out Output
+     * @throws IOException If fails to append
+     */
+    private static void unhex(final String type, final String hex, final Appendable out)
+        throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((hex.length() + 1) / 2);
+        for (int idx = 0; idx < hex.length(); idx += 2) {
+            buffer.put(
+                (byte) Integer.parseInt(hex.substring(idx, Math.min(idx + 2, hex.length())), 16)
+            );
+        }
+        buffer.position(0);
+        if ("float".equals(type)) {
+            out.append(Double.toString(buffer.getDouble()));
+        } else if ("int".equals(type)) {
+            out.append(Long.toString(buffer.getLong()));
+        } else if ("bool".equals(type)) {
+            out.append(Boolean.toString(!"00".equals(hex)).toUpperCase(Locale.ENGLISH));
+        } else {
+            out.append('"').append(
+                StringEscapeUtils.escapeJava(
+                    new String(buffer.array(), StandardCharsets.UTF_8)
+                )
+            ).append('"');
+        }
+    }
+
+    /**
+     * Checks whether the object is a free attribute of its parent.
+     *
+     * @param obj Element {@code o}
+     * @return TRUE if it is
+     */
+    private static boolean attribute(final Element obj) {
+        final Node parent = obj.getParentNode();
+        return parent instanceof Element && "o".equals(parent.getNodeName())
+            && !((Element) parent).hasAttribute("base")
+            && !obj.hasAttribute("base") && !obj.hasAttribute("atom")
+            && Dom.first(obj, "o") == null;
+    }
+
+    /**
+     * Text of the element, as {@code value-of select="text()"} in XSLT,
+     * which separates the text nodes by spaces.
+     *
+     * @param element Element
+     * @return Text
+     */
+    private static String text(final Element element) {
+        final StringBuilder text = new StringBuilder(0);
+        boolean adjacent = false;
+        boolean first = true;
+        for (Node child = element.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            final boolean textual = child.getNodeType() == Node.TEXT_NODE
+                || child.getNodeType() == Node.CDATA_SECTION_NODE;
+            if (textual) {
+                if (!adjacent && !first) {
+                    text.append(' ');
+                }
+                text.append(child.getNodeValue());
+                first = false;
+            }
+            adjacent = textual;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Number of the text children of the element.
+     *
+     * @param element Element
+     * @return Number of the text nodes
+     */
+    private static int texts(final Element element) {
+        int texts = 0;
+        for (Node child = element.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.TEXT_NODE
+                || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                ++texts;
+            }
+        }
+        return texts;
+    }
+}
@@ -23,16 +23,24 @@
  */
 package org.eolang.speco;
 
-import java.io.FileOutputStream;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.yegor256.xsline.Xsline;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import org.apache.commons.io.FileUtils;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.cactoos.io.InputOf;
 import org.cactoos.io.OutputTo;
+import org.eolang.parser.ParsingTrain;
 import org.eolang.parser.Syntax;
-import org.eolang.parser.XMIR;
-import org.objectionary.aoi.launch.LauncherKt;
+import org.w3c.dom.Document;
 
 /**
  * The class encapsulating applying of specialization to EO.
@@ -55,6 +63,21 @@ public final class EoWalk implements Walk {
      */
     private final Speco speco;
 
+    /**
+     * Number of files transformed concurrently.
+     */
+    private final int threads;
+
+    /**
+     * Options the outputs are produced with.
+     */
+    private final String options;
+
+    /**
+     * Metrics of the stages.
+     */
+    private final Metrics metrics;
+
     /**
      * Ctor.
      *
@@ -66,42 +89,190 @@ public final class EoWalk implements Walk {
         final Path input,
         final Path output,
         final Speco speco
+    ) {
+        this(input, output, speco, 1);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     */
+    public EoWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads
+    ) {
+        this(input, output, speco, threads, "");
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     * @param options Options the outputs are produced with, kept in the manifest
+     */
+    public EoWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads,
+        final String options
+    ) {
+        this(input, output, speco, threads, options, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     * @param options Options the outputs are produced with, kept in the manifest
+     * @param metrics Metrics of the stages
+     */
+    EoWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads,
+        final String options,
+        final Metrics metrics
     ) {
         this.input = input;
         this.output = output;
         this.speco = speco;
+        this.threads = threads;
+        this.options = options;
+        this.metrics = metrics;
     }
 
     @Override
     public void exec() throws IOException {
         Files.createDirectories(this.output);
-        for (final Path path : Files.newDirectoryStream(EoWalk.parse(this.input))) {
-            Files.write(
-                this.output.resolve(path.getFileName()),
-                new XMIR(this.speco.transform(Walk.toXml(path))).toEO().getBytes()
-            );
+        final Manifest manifest = new Manifest(this.output, this.options);
+        manifest.load();
+        manifest.prune(this.input);
+        try {
+            this.specialize(manifest);
+        } finally {
+            manifest.save();
         }
     }
 
     /**
-     * Takes source codes on EO, converts to xmir and applies the AOI tool.
+     * Specializes the programs of the input directory, which are changed.
+     *
+     * <p>The objects of one program may be specialized by the usages
+     * in the others, so all the programs are parsed and AOI infers their
+     * types together. But each program is specialized by its own text and
+     * its own {@code <aoi/>} section only, so its output is keyed by its
+     * input and by the key of its section in {@link CachedAoi}, and is not
+     * produced again, while both are the same.</p>
+     *
+     * @param manifest Manifest of the output directory
+     * @throws IOException If fails
+     */
+    private void specialize(final Manifest manifest) throws IOException {
+        final Map<String, Document> programs = new ConcurrentHashMap<>(0);
+        new Batch(this.input, this.threads).exec(
+            path -> {
+                final String name = Batch.name(this.input, path);
+                this.metrics.file(name);
+                programs.put(name, this.metrics.measured("parse", () -> EoWalk.parse(path)));
+            }
+        );
+        final CachedAoi aoi = new CachedAoi(programs, this.output);
+        this.metrics.measured(
+            "aoi",
+            () -> {
+                aoi.exec();
+                return programs;
+            }
+        );
+        new Batch(this.input, this.threads).exec(
+            path -> {
+                final String name = Batch.name(this.input, path);
+                final MessageDigest digest = Manifest.sha();
+                digest.update(
+                    manifest.key(this.input, Collections.singletonList(path))
+                        .getBytes(StandardCharsets.UTF_8)
+                );
+                digest.update(aoi.key(name).getBytes(StandardCharsets.UTF_8));
+                final String key = Manifest.hex(digest);
+                final Document program = programs.remove(name);
+                if (!manifest.fresh(name, key)) {
+                    this.metrics.file(name);
+                    final FileEvent event = new FileEvent();
+                    event.begin();
+                    final XML xml = this.speco.transform(name, new XmlNode(program));
+                    final long[] bytes = new long[1];
+                    manifest.write(
+                        name,
+                        key,
+                        file -> bytes[0] = this.metrics.measured(
+                            "to-eo",
+                            () -> {
+                                try (Writer out = Files.newBufferedWriter(file)) {
+                                    new EoPrinter(xml).print(out);
+                                }
+                                return Files.size(file);
+                            }
+                        )
+                    );
+                    event.commit(name, "eo", bytes[0]);
+                }
+            }
+        );
+    }
+
+    /**
+     * Takes source code on EO and converts it to xmir, prepared for the AOI tool.
+     *
+     * @param path Path to the source file
+     * @return Parsed program
+     * @throws IOException When Parsing EO fails
+     */
+    private static Document parse(final Path path) throws IOException {
+        return EoWalk.parse(path.toString(), Files.readString(path));
+    }
+
+    /**
+     * Takes source code on EO and converts it to xmir, prepared for the AOI tool.
+     *
+     * <p>The DOM is taken from the last shift as is, without printing it
+     * and parsing again. The whitespace between the elements is kept,
+     * since AOI infers other types without it.</p>
      *
-     * @param input Path of the source directory
-     * @return Path to the directory with the parsed files
+     * @param name Name of the program, for error messages
+     * @param source Source code
+     * @return Parsed program
      * @throws IOException When Parsing EO fails
      */
-    private static Path parse(final Path input) throws IOException {
-        final StringBuilder name = new StringBuilder(input.toString());
-        final Path source = Path.of(name.append("_prs").toString());
-        FileUtils.copyDirectory(input.toFile(), source.toFile());
-        for (final Path path : Files.newDirectoryStream(source)) {
-            new Syntax(
-                "scenario",
-                new InputOf(String.format("%s%n", Files.readString(path))),
-                new OutputTo(new FileOutputStream(path.toFile()))
-            ).parse();
+    static Document parse(final String name, final String source) throws IOException {
+        final ByteArrayOutputStream xmir = new ByteArrayOutputStream();
+        new Syntax(
+            "scenario",
+            new InputOf(String.format("%s%n", source)),
+            new OutputTo(xmir)
+        ).parse();
+        try {
+            return (Document) new Xsline(
+                new ParsingTrain().empty()
+                    .with(new StCompiled("/org/eolang/parser/add-refs.xsl"))
+                    .with(new StCompiled("/org/eolang/parser/expand-aliases.xsl"))
+                    .with(new StCompiled("/org/eolang/parser/resolve-aliases.xsl"))
+            ).pass(new XMLDocument(xmir.toByteArray())).node();
+        } catch (final IllegalArgumentException | IllegalStateException ex) {
+            throw new IOException(String.format("Failed to parse %s", name), ex);
         }
-        LauncherKt.launch(source.toString());
-        return Path.of(name.append("_aoi").toString());
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of Java Flight Recorder about the whole processing of a file:
+ * reading, specialization and writing.
+ *
+ * <p>The number of nodes is not known for a file, it is zero;
+ * the size of the output is in bytes.</p>
+ *
+ * @since 0.0.4
+ */
+@Name("org.eolang.speco.File")
+@Label("Speco File")
+final class FileEvent extends SpecoEvent {
+
+    /**
+     * Size of the output in bytes.
+     */
+    @Label("Bytes")
+    long bytes;
+
+    /**
+     * Commits the event, if it is recorded.
+     *
+     * @param name Name of the file
+     * @param uid Kind of the walk
+     * @param size Size of the output in bytes
+     */
+    void commit(final String name, final String uid, final long size) {
+        this.bytes = size;
+        this.commit(name, uid, () -> 0L);
+    }
+}
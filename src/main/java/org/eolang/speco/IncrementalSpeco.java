@@ -0,0 +1,500 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
+import org.cactoos.scalar.Unchecked;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Speco, which specializes again only the components of the program,
+ * which are changed since the previous run, see {@link SplitSpeco}.
+ *
+ * <p>The versions of an object and the applications rewritten to them
+ * depend on the objects it refers to, on the objects which refer to it
+ * and on the types AOI infers for them, so the program is split into
+ * the components of this dependency graph, as {@link SplitSpeco} does.
+ * Each specialized component is kept in the target directory as
+ * {@value #NAME}, keyed by its objects with their AOI and by the stylesheets
+ * and options. On the next run, the components with the same key
+ * are spliced in from the entries, and only the other ones are specialized
+ * again, concurrently. The result is the same as of {@link SplitSpeco}.</p>
+ *
+ * <p>The lines of the objects and of the objects they refer to are not
+ * in the key, so an object is not specialized again, when the objects
+ * above it get longer or shorter: the lines of the entry are mapped
+ * to the current ones.</p>
+ *
+ * <p>The entries are kept per file, by the name the speco is given,
+ * see {@link Speco#transform(String, XML)}. The entries of a file,
+ * which are not used by its current run, are deleted.</p>
+ *
+ * @since 0.0.4
+ */
+final class IncrementalSpeco implements Speco {
+
+    /**
+     * Name of the directory with the entries in the target directory.
+     */
+    static final String NAME = ".speco-objects";
+
+    /**
+     * Children of the program, which are specialized, the rest is the header.
+     */
+    private static final Set<String> SPLIT = new HashSet<>(
+        Arrays.asList("objects", "aoi", "speco")
+    );
+
+    /**
+     * Attributes with the numbers of lines: of the object itself and of the object
+     * it refers to.
+     */
+    private static final List<String> LINES = Arrays.asList("line", "ref");
+
+    /**
+     * Encapsulated speco, applied to each changed component.
+     */
+    private final Speco origin;
+
+    /**
+     * Directory with the entries.
+     */
+    private final Path dir;
+
+    /**
+     * Hash of the stylesheets and the options, shared by all the keys.
+     */
+    private final Unchecked<byte[]> base;
+
+    /**
+     * Threads of the components of all the files, started on first use.
+     */
+    private final Unchecked<ExecutorService> service;
+
+    /**
+     * Metrics of the stages.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco, applied to each changed component
+     * @param target Target directory
+     * @param options Options the outputs are produced with
+     */
+    IncrementalSpeco(final Speco origin, final Path target, final String options) {
+        this(origin, target, options, 1, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco, applied to each changed component
+     * @param target Target directory
+     * @param options Options the outputs are produced with
+     * @param threads Number of components specialized concurrently
+     * @param metrics Metrics of the stages
+     */
+    IncrementalSpeco(final Speco origin, final Path target, final String options,
+        final int threads, final Metrics metrics) {
+        this.origin = origin;
+        this.dir = target.resolve(IncrementalSpeco.NAME);
+        this.base = new Unchecked<>(
+            new Synced<>(
+                new Sticky<>(
+                    () -> {
+                        final MessageDigest digest = Manifest.sha();
+                        Manifest.implementation(digest);
+                        digest.update(options.getBytes(StandardCharsets.UTF_8));
+                        return digest.digest();
+                    }
+                )
+            )
+        );
+        this.service = SplitSpeco.pool(threads);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public XML transform(final XML xml) throws IOException {
+        return this.transform("", xml);
+    }
+
+    @Override
+    public XML transform(final String name, final XML xml) throws IOException {
+        final Document doc = Dom.copy(xml);
+        final List<Document> parts = this.metrics.measured(
+            "split", () -> SplitSpeco.parts(doc)
+        );
+        final Path entries = this.entries(name);
+        final List<XML> done = new ArrayList<>(parts.size());
+        final List<Document> changed = new ArrayList<>(0);
+        final List<Path> missing = new ArrayList<>(0);
+        final Set<Path> used = new HashSet<>(parts.size());
+        for (final Document part : parts) {
+            final Path entry = entries.resolve(String.format("%s.xml", this.key(part)));
+            used.add(entry);
+            final XML cached = this.metrics.measured(
+                "splice", () -> IncrementalSpeco.load(part, entry)
+            );
+            if (cached == null) {
+                changed.add(part);
+                missing.add(entry);
+            }
+            done.add(cached);
+        }
+        final List<XML> specialized = SplitSpeco.specialized(
+            this.origin, name, changed, this.service.value(), this.metrics
+        );
+        Files.createDirectories(entries);
+        for (int idx = 0; idx < specialized.size(); ++idx) {
+            IncrementalSpeco.save(changed.get(idx), specialized.get(idx), missing.get(idx));
+            done.set(done.indexOf(null), specialized.get(idx));
+        }
+        IncrementalSpeco.prune(entries, used);
+        Logger.debug(
+            this, "%d of %d components of %s are specialized again",
+            changed.size(), parts.size(), name
+        );
+        final XML result;
+        if (parts.size() < 2) {
+            result = done.get(0);
+        } else {
+            result = this.metrics.measured("merge", () -> SplitSpeco.merged(doc, done));
+        }
+        return result;
+    }
+
+    /**
+     * Directory with the entries of the file.
+     *
+     * @param name Name of the file
+     * @return Directory
+     */
+    private Path entries(final String name) {
+        final MessageDigest digest = Manifest.sha();
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        return this.dir.resolve(Manifest.hex(digest));
+    }
+
+    /**
+     * Key of the component.
+     *
+     * @param part Component
+     * @return Key
+     */
+    private String key(final Document part) {
+        final MessageDigest digest = Manifest.sha();
+        digest.update(this.base.value());
+        for (final Element child : IncrementalSpeco.split(part)) {
+            IncrementalSpeco.update(digest, child);
+        }
+        return Manifest.hex(digest);
+    }
+
+    /**
+     * Splices the component in from the entry.
+     *
+     * <p>The header of the program is taken from the component, since
+     * it is not specialized, and the lines of the entry are mapped
+     * to the lines of the component.</p>
+     *
+     * @param part Component
+     * @param entry Entry
+     * @return Specialized component or NULL if there is no entry
+     *  or its lines can't be mapped
+     * @throws IOException If fails to read the entry
+     */
+    private static XML load(final Document part, final Path entry) throws IOException {
+        XML result = null;
+        if (Files.exists(entry)) {
+            final Document cached;
+            try (InputStream input = Files.newInputStream(entry)) {
+                cached = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+            } catch (final ParserConfigurationException | SAXException ex) {
+                throw new IOException(String.format("Failed to read %s", entry), ex);
+            }
+            final Map<String, String> lines = IncrementalSpeco.lines(
+                cached.getDocumentElement().getAttribute("lines"), part
+            );
+            if (lines != null) {
+                result = new XmlNode(
+                    IncrementalSpeco.spliced(
+                        part, Dom.first(cached.getDocumentElement(), "program"), lines
+                    )
+                );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the specialized component to the entry, together with the lines
+     * of the component.
+     *
+     * @param part Component
+     * @param specialized Specialized component
+     * @param entry Entry
+     * @throws IOException If fails to write the entry
+     */
+    private static void save(final Document part, final XML specialized, final Path entry)
+        throws IOException {
+        final List<String> lines = new ArrayList<>(0);
+        for (final Element child : IncrementalSpeco.split(part)) {
+            IncrementalSpeco.collect(child, lines);
+        }
+        final Transformer transformer = Stylesheets.identity();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        try (OutputStream output = Files.newOutputStream(entry)) {
+            output.write(
+                String.format("<entry lines=\"%s\">", String.join(" ", lines))
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+            transformer.transform(XmlTree.source(specialized), new StreamResult(output));
+            output.write("</entry>".getBytes(StandardCharsets.UTF_8));
+        } catch (final TransformerException ex) {
+            throw new IOException(String.format("Failed to write %s", entry), ex);
+        }
+    }
+
+    /**
+     * Program with the header of the component and the specialized
+     * children of the entry, with the lines mapped.
+     *
+     * @param part Component
+     * @param cached Program of the entry
+     * @param lines Lines of the entry mapped to the lines of the component
+     * @return Program
+     */
+    private static Document spliced(final Document part, final Element cached,
+        final Map<String, String> lines) {
+        final Element program = part.getDocumentElement();
+        final Document doc = Dom.copy(program.cloneNode(false));
+        final Element root = doc.getDocumentElement();
+        final Set<String> taken = new HashSet<>(0);
+        for (Node child = program.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (IncrementalSpeco.SPLIT.contains(child.getNodeName())) {
+                final Element specialized = Dom.first(cached, child.getNodeName());
+                if (specialized != null) {
+                    root.appendChild(doc.importNode(specialized, true));
+                }
+                taken.add(child.getNodeName());
+            } else {
+                root.appendChild(doc.importNode(child, true));
+            }
+        }
+        for (Node child = cached.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (IncrementalSpeco.SPLIT.contains(child.getNodeName())
+                && !taken.contains(child.getNodeName())) {
+                root.appendChild(doc.importNode(child, true));
+            }
+        }
+        for (final Element child : IncrementalSpeco.split(doc)) {
+            IncrementalSpeco.remap(child, lines);
+        }
+        return doc;
+    }
+
+    /**
+     * Maps the lines of the entry to the lines of the component, in the order
+     * of the elements, which have them.
+     *
+     * @param before Lines of the entry, separated by spaces
+     * @param part Component
+     * @return Map or NULL if one line of the entry is mapped to two lines
+     */
+    private static Map<String, String> lines(final String before, final Document part) {
+        final List<String> after = new ArrayList<>(0);
+        for (final Element child : IncrementalSpeco.split(part)) {
+            IncrementalSpeco.collect(child, after);
+        }
+        final List<String> origin;
+        if (before.isEmpty()) {
+            origin = new ArrayList<>(0);
+        } else {
+            origin = Arrays.asList(before.split(" "));
+        }
+        Map<String, String> lines = new HashMap<>(origin.size());
+        if (origin.size() == after.size()) {
+            for (int idx = 0; idx < origin.size() && lines != null; ++idx) {
+                final String previous = lines.put(origin.get(idx), after.get(idx));
+                if (previous != null && !previous.equals(after.get(idx))) {
+                    lines = null;
+                }
+            }
+        } else {
+            lines = null;
+        }
+        return lines;
+    }
+
+    /**
+     * Specialized children of the program.
+     *
+     * @param doc Program
+     * @return Children
+     */
+    private static List<Element> split(final Document doc) {
+        final List<Element> split = new ArrayList<>(IncrementalSpeco.SPLIT.size());
+        for (Node child = doc.getDocumentElement().getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (IncrementalSpeco.SPLIT.contains(child.getNodeName())) {
+                split.add((Element) child);
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Collects the numbers of lines of the element and its descendants,
+     * in the document order.
+     *
+     * @param element Element
+     * @param lines Lines so far
+     */
+    private static void collect(final Element element, final List<String> lines) {
+        for (final String attr : IncrementalSpeco.LINES) {
+            if (element.hasAttribute(attr)) {
+                lines.add(element.getAttribute(attr));
+            }
+        }
+        for (Node child = element.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                IncrementalSpeco.collect((Element) child, lines);
+            }
+        }
+    }
+
+    /**
+     * Replaces the numbers of lines of the element and its descendants
+     * by the mapped ones.
+     *
+     * @param element Element
+     * @param lines Lines of the entry mapped to the lines of the component
+     */
+    private static void remap(final Element element, final Map<String, String> lines) {
+        for (final String attr : IncrementalSpeco.LINES) {
+            final String line = lines.get(element.getAttribute(attr));
+            if (element.hasAttribute(attr) && line != null) {
+                Dom.attr(element, attr, line);
+            }
+        }
+        for (Node child = element.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                IncrementalSpeco.remap((Element) child, lines);
+            }
+        }
+    }
+
+    /**
+     * Updates the digest with the element: its name, attributes except
+     * the numbers of lines, text and children.
+     *
+     * @param digest Digest
+     * @param element Element
+     */
+    private static void update(final MessageDigest digest, final Element element) {
+        final NamedNodeMap attrs = element.getAttributes();
+        final Map<String, String> sorted = new TreeMap<>();
+        for (int idx = 0; idx < attrs.getLength(); ++idx) {
+            final Attr attr = (Attr) attrs.item(idx);
+            if (!IncrementalSpeco.LINES.contains(attr.getName())) {
+                sorted.put(attr.getName(), attr.getValue());
+            }
+        }
+        digest.update((byte) '(');
+        digest.update(element.getTagName().getBytes(StandardCharsets.UTF_8));
+        for (final Map.Entry<String, String> attr : sorted.entrySet()) {
+            digest.update(
+                String.format(" %s=%s", attr.getKey(), attr.getValue())
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        for (Node child = element.getFirstChild(); child != null;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                IncrementalSpeco.update(digest, (Element) child);
+            } else if (child.getNodeType() == Node.TEXT_NODE
+                || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                digest.update((byte) '"');
+                digest.update(child.getNodeValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '"');
+            }
+        }
+        digest.update((byte) ')');
+    }
+
+    /**
+     * Deletes the entries of the file, which are not used by its current run.
+     *
+     * @param entries Directory with the entries of the file
+     * @param used Entries of the current run
+     * @throws IOException If fails to delete
+     */
+    private static void prune(final Path entries, final Set<Path> used) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(entries)) {
+            for (final Path file : files) {
+                if (!used.contains(file)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -23,8 +23,10 @@
  */
 package org.eolang.speco;
 
+import com.yegor256.xsline.Shift;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.Callable;
 import picocli.CommandLine;
 
@@ -69,20 +71,227 @@ public final class Main implements Callable<Integer> {
         description = "If delete temporary tags")
     private boolean clearxmir;
 
+    /**
+     * Number of files transformed concurrently.
+     */
+    @CommandLine.Option(names = { "--threads" },
+        defaultValue = "1",
+        description = "Number of files transformed concurrently")
+    private int threads;
+
+    /**
+     * Number of independent components of one file specialized concurrently.
+     */
+    @CommandLine.Option(names = { "--split" },
+        defaultValue = "1",
+        description = "Number of components of one file specialized concurrently")
+    private int split;
+
+    /**
+     * Flag indicating whether the reference stylesheet of specialization is applied.
+     */
+    @CommandLine.Option(names = { "--xsl-specialization" },
+        defaultValue = "false",
+        description = "If specialize objects by the reference stylesheet")
+    private boolean xslspec;
+
+    /**
+     * Flag indicating whether the rules 2-7 are applied in Java.
+     */
+    @CommandLine.Option(names = { "--native" },
+        defaultValue = "false",
+        description = "If apply the rules 2-7 in Java instead of stylesheets")
+    private boolean nativerules;
+
+    /**
+     * Flag indicating whether identical specialized objects are merged.
+     */
+    @CommandLine.Option(names = { "--dedup" },
+        defaultValue = "false",
+        description = "If keep one copy of structurally identical specialized objects")
+    private boolean dedup;
+
+    /**
+     * Flag indicating whether unreferenced specialized objects are removed.
+     */
+    @CommandLine.Option(names = { "--drop-dead" },
+        defaultValue = "false",
+        description = "If remove specialized objects and helper attributes nobody refers to")
+    private boolean dropdead;
+
+    /**
+     * Flag indicating whether only the changed components of files are specialized.
+     */
+    @CommandLine.Option(names = { "--incremental" },
+        defaultValue = "false",
+        description = "If specialize again only the objects changed since the previous run")
+    private boolean incremental;
+
+    /**
+     * Time of specialization of one file in milliseconds.
+     */
+    @CommandLine.Option(names = { "--max-time" },
+        defaultValue = "0",
+        description = "Milliseconds to specialize one file for, checked before each stage"
+            + " and iteration, its program is kept if exceeded")
+    private long maxtime;
+
+    /**
+     * Iterations of the rule 1-2 for one file.
+     */
+    @CommandLine.Option(names = { "--max-iterations" },
+        defaultValue = "0",
+        description = "Iterations of specialization of one file, its program is kept if exceeded")
+    private int maxiterations;
+
+    /**
+     * Versions of the objects of one file.
+     */
+    @CommandLine.Option(names = { "--max-versions" },
+        defaultValue = "0",
+        description = "Versions of objects of one file, its program is kept if exceeded")
+    private int maxversions;
+
+    /**
+     * Path to the file with metrics of the stages.
+     */
+    @CommandLine.Option(names = { "--metrics" },
+        description = "File to write time and sizes of the stages to, as JSON")
+    private Path report;
+
+    /**
+     * Flag indicating whether speco serves requests until stopped.
+     */
+    @CommandLine.Option(names = { "--daemon" },
+        defaultValue = "false",
+        description = "If serve requests from stdin, or from --port, until stopped")
+    private boolean daemon;
+
+    /**
+     * Flag indicating whether the source directory is watched for changes.
+     */
+    @CommandLine.Option(names = { "--watch" },
+        defaultValue = "false",
+        description = "If specialize again each time files of --source are changed")
+    private boolean watch;
+
+    /**
+     * Port on the loopback interface for requests to the daemon.
+     */
+    @CommandLine.Option(names = { "--port" },
+        defaultValue = "0",
+        description = "Port on the loopback interface for --daemon, stdin if 0;"
+            + " the token for it is written to ~/.speco/daemon-<port>")
+    private int port;
+
+    /**
+     * Directory, which relative paths are resolved against.
+     */
+    private final Path home;
+
+    /**
+     * Ctor.
+     */
+    public Main() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param home Directory, which relative paths are resolved against
+     */
+    Main(final Path home) {
+        this.home = home;
+    }
+
     @Override
     public Integer call() throws IOException {
-        Speco speco = new DefaultSpeco();
+        Stylesheets.warmup();
+        if (this.daemon) {
+            new Daemon(this.port).exec();
+        } else if (this.watch) {
+            new Watch(this.home.resolve(this.input), this.walk()).exec();
+        } else {
+            this.walk().exec();
+        }
+        return 0;
+    }
+
+    /**
+     * Walk, which specializes the programs from the source directory
+     * and saves the metrics.
+     *
+     * @return Walk
+     */
+    private Walk walk() {
+        final Metrics metrics;
+        if (this.report == null) {
+            metrics = Metrics.NONE;
+        } else {
+            metrics = new Metrics();
+        }
+        final String options = String.format(
+            String.join(
+                " ",
+                "--eo=%b --clear-xmir=%b --xsl-specialization=%b --native=%b",
+                "--dedup=%b --drop-dead=%b --split=%b --incremental=%b",
+                "--max-time=%d --max-iterations=%d --max-versions=%d"
+            ),
+            this.eolang, this.clearxmir, this.xslspec, this.nativerules, this.dedup,
+            this.dropdead, this.split > 1, this.incremental, this.maxtime, this.maxiterations,
+            this.maxversions
+        );
+        final Budget budget = new Budget(this.maxtime, this.maxiterations, this.maxversions);
+        final Shift specialization;
+        if (this.xslspec) {
+            specialization = DefaultSpeco.reference(metrics, budget);
+        } else {
+            specialization = new StSpecialization(budget);
+        }
+        Speco speco;
+        if (this.nativerules) {
+            speco = new NativeSpeco(specialization, metrics);
+        } else {
+            speco = new DefaultSpeco(specialization, metrics);
+        }
+        if (this.incremental) {
+            speco = new IncrementalSpeco(
+                speco, this.home.resolve(this.output), options, this.split, metrics
+            );
+        } else if (this.split > 1) {
+            speco = new SplitSpeco(speco, this.split, metrics);
+        }
+        if (this.dedup) {
+            speco = new StepSpeco(speco, new StDedup(), metrics);
+        }
+        if (this.dropdead) {
+            speco = new StepSpeco(speco, new StLiveness(), metrics);
+        }
+        if (budget.limited()) {
+            speco = new BudgetSpeco(speco, budget);
+        }
         if (this.clearxmir) {
-            speco = new ClearXmirSpeco(speco);
+            speco = new ClearXmirSpeco(speco, metrics);
         }
         final Walk walk;
         if (this.eolang) {
-            walk = new EoWalk(this.input, this.output, speco);
+            walk = new EoWalk(
+                this.home.resolve(this.input), this.home.resolve(this.output),
+                speco, this.threads, options, metrics
+            );
         } else {
-            walk = new XmirWalk(this.input, this.output, speco);
+            walk = new XmirWalk(
+                this.home.resolve(this.input), this.home.resolve(this.output),
+                speco, this.threads, options, metrics
+            );
         }
-        walk.exec();
-        return 0;
+        return () -> {
+            walk.exec();
+            if (this.report != null) {
+                metrics.save(this.home.resolve(this.report));
+            }
+        };
     }
 
     /**
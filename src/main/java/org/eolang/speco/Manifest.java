@@ -0,0 +1,420 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.cactoos.Proc;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
+import org.cactoos.scalar.Unchecked;
+
+/**
+ * Manifest of the target directory, which remembers what was produced there.
+ *
+ * <p>For each output file the manifest keeps the hash of its inputs
+ * with their paths relative to the source directory, of the stylesheets,
+ * of the code of speco, of the versions of AOI and DDR and of the options
+ * it was produced with, together with the hash of the output itself. The file is not produced
+ * again while both hashes match, and the output is not rewritten
+ * when its content is the same, so its modification time is kept.</p>
+ *
+ * <p>The outputs of the sources, which are deleted or renamed since
+ * the previous run, are deleted too, see {@link #prune(Path)}, unless
+ * they are modified since then.</p>
+ *
+ * <p>The manifest is stored in the target directory as
+ * {@value #NAME}, one line per output file. Delete it to force
+ * the full rebuild.</p>
+ *
+ * @since 0.0.4
+ */
+final class Manifest {
+
+    /**
+     * Name of the manifest file in the target directory.
+     */
+    static final String NAME = ".speco-manifest";
+
+    /**
+     * Hash of the stylesheets, the code of speco and the versions of AOI and DDR,
+     * computed once per JVM and shared by all the manifests and by
+     * {@link IncrementalSpeco}.
+     */
+    private static final Unchecked<byte[]> IMPLEMENTATION = new Unchecked<>(
+        new Synced<>(new Sticky<>(Manifest::implementation))
+    );
+
+    /**
+     * Target directory.
+     */
+    private final Path dir;
+
+    /**
+     * Hash of the stylesheets, the code and the options, shared by all the keys.
+     */
+    private final Unchecked<byte[]> base;
+
+    /**
+     * Entries read from the disk, by output names.
+     */
+    private final Map<String, String[]> before;
+
+    /**
+     * Entries of the current run, by output names.
+     */
+    private final Map<String, String[]> after;
+
+    /**
+     * Ctor.
+     *
+     * @param dir Target directory
+     * @param options Options the outputs are produced with
+     */
+    Manifest(final Path dir, final String options) {
+        this.dir = dir;
+        this.base = new Unchecked<>(
+            new Synced<>(
+                new Sticky<>(
+                    () -> {
+                        final MessageDigest digest = Manifest.sha();
+                        Manifest.implementation(digest);
+                        digest.update(options.getBytes(StandardCharsets.UTF_8));
+                        return digest.digest();
+                    }
+                )
+            )
+        );
+        this.before = new ConcurrentHashMap<>(0);
+        this.after = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Reads the manifest from the target directory, if it is there.
+     *
+     * @throws IOException If fails to read
+     */
+    void load() throws IOException {
+        final Path file = this.dir.resolve(Manifest.NAME);
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String line = reader.readLine();
+                while (line != null) {
+                    final String[] parts = line.split("\t");
+                    if (parts.length == 3) {
+                        this.before.put(parts[0], new String[] {parts[1], parts[2]});
+                    }
+                    line = reader.readLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the manifest of the current run to the target directory.
+     *
+     * <p>Only the outputs, which were produced or kept during the run,
+     * are written.</p>
+     *
+     * @throws IOException If fails to write
+     */
+    void save() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(this.dir.resolve(Manifest.NAME))) {
+            for (final Map.Entry<String, String[]> entry : new TreeMap<>(this.after).entrySet()) {
+                writer.write(
+                    String.format(
+                        "%s\t%s\t%s%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Deletes the outputs of the previous run, whose sources are not in the
+     * source directory anymore, and forgets them.
+     *
+     * <p>The output is deleted only if it is not modified since it was
+     * produced, so the files put into the target directory by hand
+     * are kept.</p>
+     *
+     * @param source Source directory
+     * @throws IOException If fails to list the sources or to delete an output
+     */
+    void prune(final Path source) throws IOException {
+        final Set<String> names = new HashSet<>(0);
+        for (final Path input : Batch.files(source)) {
+            names.add(Batch.name(source, input));
+        }
+        for (final Map.Entry<String, String[]> entry : this.before.entrySet()) {
+            if (!names.contains(entry.getKey())) {
+                final Path output = this.dir.resolve(entry.getKey());
+                if (Files.exists(output) && entry.getValue()[1].equals(Manifest.hash(output))) {
+                    Files.delete(output);
+                }
+                this.before.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Hash of the inputs, the stylesheets, the code and the options.
+     *
+     * @param source Source directory of the inputs
+     * @param inputs Input files the output depends on
+     * @return Hash
+     * @throws IOException If fails to read the inputs
+     */
+    String key(final Path source, final Collection<Path> inputs) throws IOException {
+        final MessageDigest digest = Manifest.sha();
+        digest.update(this.base.value());
+        for (final Path input : inputs) {
+            digest.update(Batch.name(source, input).getBytes(StandardCharsets.UTF_8));
+            Manifest.update(digest, input);
+        }
+        return Manifest.hex(digest);
+    }
+
+    /**
+     * Checks whether the output is produced with the same key and is not
+     * modified since then. Remembers the output for the current run if so.
+     *
+     * @param name Name of the output file in the target directory
+     * @param key Key of the inputs
+     * @return TRUE if the output is fresh and can be kept as is
+     * @throws IOException If fails to read the output
+     */
+    boolean fresh(final String name, final String key) throws IOException {
+        final String[] entry = this.before.get(name);
+        final Path output = this.dir.resolve(name);
+        final boolean fresh = entry != null
+            && entry[0].equals(key)
+            && Files.exists(output)
+            && entry[1].equals(Manifest.hash(output));
+        if (fresh) {
+            this.after.put(name, entry);
+        }
+        return fresh;
+    }
+
+    /**
+     * Produces the output file in the target directory.
+     *
+     * <p>The content is written to a temporary file first, which replaces
+     * the output only if the content differs. The temporary file is created
+     * with the default permissions, so the output follows the umask like
+     * any other file written to the target.</p>
+     *
+     * @param name Name of the output file in the target directory
+     * @param key Key of the inputs
+     * @param content Procedure, which writes the content to the given file
+     * @throws IOException If fails to write
+     */
+    void write(final String name, final String key, final Proc<Path> content)
+        throws IOException {
+        final Path output = this.dir.resolve(name);
+        Files.createDirectories(output.getParent());
+        final Path temp = Files.createFile(
+            this.dir.resolve(String.format(".speco-%s.tmp", UUID.randomUUID()))
+        );
+        try {
+            content.exec(temp);
+            final String hash = Manifest.hash(temp);
+            if (Files.exists(output) && hash.equals(Manifest.hash(output))) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.after.put(name, new String[] {key, hash});
+        } catch (final IOException ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            throw new IOException(String.format("Failed to write %s", output), ex);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Updates the digest with the stylesheets, the code of speco and
+     * the versions of AOI and DDR, which the outputs depend on.
+     *
+     * @param digest Digest
+     */
+    static void implementation(final MessageDigest digest) {
+        digest.update(Manifest.IMPLEMENTATION.value());
+    }
+
+    /**
+     * Version of the library of EO, as it is packaged.
+     *
+     * @param artifact Artifact id
+     * @return Version or empty string if it is not known
+     * @throws IOException If fails to read
+     */
+    static String version(final String artifact) throws IOException {
+        final Properties props = new Properties();
+        try (InputStream input = Manifest.class.getResourceAsStream(
+            String.format("/META-INF/maven/org.eolang/%s/pom.properties", artifact)
+        )) {
+            if (input != null) {
+                props.load(input);
+            }
+        }
+        return props.getProperty("version", "");
+    }
+
+    /**
+     * Hash of the stylesheets, the code of speco and the versions of AOI and DDR.
+     *
+     * @return Hash
+     * @throws IOException If fails to read the code or the versions
+     * @throws URISyntaxException If the location of the code is not a path
+     */
+    private static byte[] implementation() throws IOException, URISyntaxException {
+        final MessageDigest digest = Manifest.sha();
+        Stylesheets.digest(digest);
+        digest.update(Manifest.code());
+        digest.update(Manifest.version("aoi").getBytes(StandardCharsets.UTF_8));
+        digest.update(Manifest.version("ddr").getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    /**
+     * Hash of the code of speco: of the jar it is loaded from,
+     * or of all the files of the directory with the classes.
+     *
+     * @return Hash
+     * @throws IOException If fails to read the code
+     * @throws URISyntaxException If the location of the code is not a path
+     */
+    private static byte[] code() throws IOException, URISyntaxException {
+        final MessageDigest digest = Manifest.sha();
+        final String version = Manifest.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+        }
+        final CodeSource source = Manifest.class.getProtectionDomain().getCodeSource();
+        if (source != null) {
+            final Path location = Paths.get(source.getLocation().toURI());
+            if (Files.isDirectory(location)) {
+                final List<Path> files;
+                try (Stream<Path> walk = Files.walk(location)) {
+                    files = walk.filter(Files::isRegularFile).sorted()
+                        .collect(Collectors.toList());
+                }
+                for (final Path file : files) {
+                    digest.update(
+                        Batch.name(location, file).getBytes(StandardCharsets.UTF_8)
+                    );
+                    Manifest.update(digest, file);
+                }
+            } else if (Files.isRegularFile(location)) {
+                Manifest.update(digest, location);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Hash of the file content.
+     *
+     * @param file File
+     * @return Hash
+     * @throws IOException If fails to read the file
+     */
+    private static String hash(final Path file) throws IOException {
+        final MessageDigest digest = Manifest.sha();
+        Manifest.update(digest, file);
+        return Manifest.hex(digest);
+    }
+
+    /**
+     * Updates the digest with the file content.
+     *
+     * @param digest Digest
+     * @param file File
+     * @throws IOException If fails to read the file
+     */
+    private static void update(final MessageDigest digest, final Path file)
+        throws IOException {
+        final byte[] buffer = new byte[8192];
+        try (InputStream stream = Files.newInputStream(file)) {
+            int len = stream.read(buffer);
+            while (len >= 0) {
+                digest.update(buffer, 0, len);
+                len = stream.read(buffer);
+            }
+        }
+    }
+
+    /**
+     * New SHA-256 digest.
+     *
+     * @return Digest
+     */
+    static MessageDigest sha() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Hex representation of the digest.
+     *
+     * @param digest Digest
+     * @return Hex string
+     */
+    static String hex(final MessageDigest digest) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte part : digest.digest()) {
+            hex.append(String.format("%02x", part));
+        }
+        return hex.toString();
+    }
+}
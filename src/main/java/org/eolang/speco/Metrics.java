@@ -0,0 +1,404 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import com.yegor256.xsline.StLambda;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.Scalar;
+import org.w3c.dom.Node;
+
+/**
+ * Time and sizes of the stages of specialization, per file and per run.
+ *
+ * <p>The stages are recorded for the file, which is processed by the current
+ * thread, see {@link #file(String)}. Stages, which are applied to the whole
+ * run, like AOI, are recorded only for the run.</p>
+ *
+ * <p>Use {@link #NONE} to measure nothing. The stages are recorded
+ * by Java Flight Recorder anyway, see {@link SpecoEvent}: the events
+ * cost almost nothing, when the recording is off.</p>
+ *
+ * @since 0.0.4
+ */
+final class Metrics {
+
+    /**
+     * Metrics, which measure nothing.
+     */
+    static final Metrics NONE = new Metrics(false);
+
+    /**
+     * Whether the stages are measured.
+     */
+    private final boolean enabled;
+
+    /**
+     * Stages by files, in the order they were applied.
+     */
+    private final Map<String, Map<String, Stage>> files;
+
+    /**
+     * File, which is processed by the current thread.
+     */
+    private final ThreadLocal<String> current;
+
+    /**
+     * Time, when the metrics were created.
+     */
+    private final long start;
+
+    /**
+     * Ctor.
+     */
+    Metrics() {
+        this(true);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param enabled Whether the stages are measured
+     */
+    private Metrics(final boolean enabled) {
+        this.enabled = enabled;
+        this.files = new ConcurrentHashMap<>(0);
+        this.current = new ThreadLocal<>();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Sets the file, which is processed by the current thread.
+     *
+     * @param name Name of the file
+     */
+    void file(final String name) {
+        this.current.set(name);
+    }
+
+    /**
+     * File, which is processed by the current thread.
+     *
+     * @return Name of the file or NULL if it is not set
+     */
+    String file() {
+        return this.current.get();
+    }
+
+    /**
+     * Shift, which records its time and sizes of the documents.
+     *
+     * @param shift Shift
+     * @return Measured shift
+     */
+    Shift measured(final Shift shift) {
+        Shift measured = new StRecorded(shift, this, StageEvent::new);
+        if (this.enabled) {
+            measured = new StMeasured(measured, this);
+        }
+        return measured;
+    }
+
+    /**
+     * Shift, which counts how many times it is applied,
+     * to be used inside {@link com.yegor256.xsline.StEndless}.
+     *
+     * @param shift Shift
+     * @return Counted shift
+     */
+    Shift iterated(final Shift shift) {
+        final Shift recorded = new StRecorded(shift, this, IterationEvent::new);
+        final Shift iterated;
+        if (this.enabled) {
+            iterated = new StLambda(
+                shift::uid,
+                (position, xml) -> {
+                    this.stage(shift.uid()).iterate();
+                    return recorded.apply(position, xml);
+                }
+            );
+        } else {
+            iterated = recorded;
+        }
+        return iterated;
+    }
+
+    /**
+     * Runs the stage and records its time.
+     *
+     * @param name Name of the stage
+     * @param action Action of the stage
+     * @param <T> Type of the result
+     * @return Result of the action
+     * @throws IOException If the action fails
+     */
+    <T> T measured(final String name, final Scalar<T> action) throws IOException {
+        final SpecoEvent event = new StageEvent();
+        event.begin();
+        final long before = System.nanoTime();
+        final T result;
+        try {
+            result = action.value();
+        } catch (final IOException | RuntimeException ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            throw new IOException(String.format("Stage '%s' failed", name), ex);
+        }
+        event.commit(this.file(), name, () -> Metrics.nodes(result));
+        if (this.enabled) {
+            this.stage(name).add(System.nanoTime() - before, 0L, 0L, 0L);
+        }
+        return result;
+    }
+
+    /**
+     * Records one application of the stage.
+     *
+     * @param name Name of the stage
+     * @param nanos Time in nanoseconds
+     * @param input Number of nodes in the input document
+     * @param output Number of nodes in the output document
+     * @param bytes Size of the output document
+     */
+    void add(final String name, final long nanos, final long input, final long output,
+        final long bytes) {
+        this.stage(name).add(nanos, input, output, bytes);
+    }
+
+    /**
+     * Writes the metrics to the file as JSON.
+     *
+     * @param path Path to the file
+     * @throws IOException If fails to write
+     */
+    void save(final Path path) throws IOException {
+        final Map<String, Stage> run = new LinkedHashMap<>(0);
+        final Map<String, Map<String, Stage>> sorted = new TreeMap<>(this.files);
+        for (final Map<String, Stage> stages : sorted.values()) {
+            synchronized (stages) {
+                for (final Map.Entry<String, Stage> entry : stages.entrySet()) {
+                    run.computeIfAbsent(entry.getKey(), key -> new Stage())
+                        .merge(entry.getValue());
+                }
+            }
+        }
+        final StringBuilder json = new StringBuilder(0)
+            .append("{\n  \"millis\": ")
+            .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start))
+            .append(",\n  \"run\": ");
+        Metrics.json(json, run, "  ");
+        json.append(",\n  \"files\": {");
+        String comma = "";
+        for (final Map.Entry<String, Map<String, Stage>> entry : sorted.entrySet()) {
+            if (!entry.getKey().isEmpty()) {
+                json.append(comma).append("\n    ")
+                    .append(Metrics.quoted(entry.getKey())).append(": ");
+                synchronized (entry.getValue()) {
+                    Metrics.json(json, entry.getValue(), "    ");
+                }
+                comma = ",";
+            }
+        }
+        json.append("\n  }\n}\n");
+        Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stage of the current file.
+     *
+     * @param name Name of the stage
+     * @return Stage
+     */
+    private Stage stage(final String name) {
+        String file = this.current.get();
+        if (file == null) {
+            file = "";
+        }
+        final Map<String, Stage> stages = this.files.computeIfAbsent(
+            file, key -> Collections.synchronizedMap(new LinkedHashMap<>(0))
+        );
+        return stages.computeIfAbsent(name, key -> new Stage());
+    }
+
+    /**
+     * Number of nodes of the result of a stage, if it is a document.
+     *
+     * @param result Result of the stage
+     * @return Number of nodes or zero
+     */
+    private static long nodes(final Object result) {
+        final long nodes;
+        if (result instanceof XML) {
+            nodes = StMeasured.nodes((XML) result);
+        } else if (result instanceof Node) {
+            nodes = StMeasured.nodes((Node) result);
+        } else {
+            nodes = 0L;
+        }
+        return nodes;
+    }
+
+    /**
+     * Prints stages as JSON object.
+     *
+     * @param json JSON to append to
+     * @param stages Stages by names
+     * @param indent Indentation of the object
+     */
+    private static void json(final StringBuilder json, final Map<String, Stage> stages,
+        final String indent) {
+        json.append('{');
+        String comma = "";
+        for (final Map.Entry<String, Stage> entry : stages.entrySet()) {
+            json.append(comma).append('\n').append(indent).append("  ")
+                .append(Metrics.quoted(entry.getKey())).append(": ")
+                .append(entry.getValue().json());
+            comma = ",";
+        }
+        json.append('\n').append(indent).append('}');
+    }
+
+    /**
+     * JSON string.
+     *
+     * @param text Text
+     * @return Quoted and escaped text
+     */
+    private static String quoted(final String text) {
+        final StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (final char chr : text.toCharArray()) {
+            if (chr == '"' || chr == '\\') {
+                quoted.append('\\').append(chr);
+            } else if (chr < ' ') {
+                quoted.append(String.format("\\u%04x", (int) chr));
+            } else {
+                quoted.append(chr);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Totals of one stage.
+     *
+     * @since 0.0.4
+     */
+    private static final class Stage {
+
+        /**
+         * Number of applications.
+         */
+        private long calls;
+
+        /**
+         * Number of iterations inside the applications.
+         */
+        private long iterations;
+
+        /**
+         * Time in nanoseconds.
+         */
+        private long nanos;
+
+        /**
+         * Number of nodes in the input documents.
+         */
+        private long input;
+
+        /**
+         * Number of nodes in the output documents.
+         */
+        private long output;
+
+        /**
+         * Size of the output documents.
+         */
+        private long bytes;
+
+        /**
+         * Records one application.
+         *
+         * @param time Time in nanoseconds
+         * @param before Number of nodes in the input document
+         * @param after Number of nodes in the output document
+         * @param size Size of the output document
+         */
+        synchronized void add(final long time, final long before, final long after,
+            final long size) {
+            this.calls += 1L;
+            this.nanos += time;
+            this.input += before;
+            this.output += after;
+            this.bytes += size;
+        }
+
+        /**
+         * Records one iteration.
+         */
+        synchronized void iterate() {
+            this.iterations += 1L;
+        }
+
+        /**
+         * Adds totals of another stage.
+         *
+         * @param other Other stage
+         */
+        synchronized void merge(final Stage other) {
+            synchronized (other) {
+                this.calls += other.calls;
+                this.iterations += other.iterations;
+                this.nanos += other.nanos;
+                this.input += other.input;
+                this.output += other.output;
+                this.bytes += other.bytes;
+            }
+        }
+
+        /**
+         * Totals as JSON object.
+         *
+         * @return JSON
+         */
+        synchronized String json() {
+            return String.format(
+                Locale.ROOT,
+                "{\"calls\": %d, \"iterations\": %d, \"millis\": %.3f, \"nodes_in\": %d, \"nodes_out\": %d, \"bytes\": %d}",
+                this.calls, this.iterations, this.nanos / 1.0e6,
+                this.input, this.output, this.bytes
+            );
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import com.yegor256.xsline.TrDefault;
+import com.yegor256.xsline.TrLambda;
+import com.yegor256.xsline.Xsline;
+import java.io.IOException;
+
+/**
+ * The class encapsulating specialization logic for xmir programs,
+ * which applies the rules 2-7 in Java instead of the stylesheets.
+ *
+ * <p>The output is the same as of {@link DefaultSpeco}.</p>
+ *
+ * @since 0.0.4
+ */
+final class NativeSpeco implements Speco {
+
+    /**
+     * Shift, which applies the rule 1-2 of specialization.
+     */
+    private final Shift specialization;
+
+    /**
+     * Metrics of the shifts.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     */
+    NativeSpeco() {
+        this(new StSpecialization());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param specialization Shift, which applies the rule 1-2 of specialization
+     */
+    NativeSpeco(final Shift specialization) {
+        this(specialization, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param specialization Shift, which applies the rule 1-2 of specialization
+     * @param metrics Metrics of the shifts
+     */
+    NativeSpeco(final Shift specialization, final Metrics metrics) {
+        this.specialization = specialization;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public XML transform(final XML xml) throws IOException {
+        return new Xsline(
+            new TrLambda(
+                new TrDefault<Shift>()
+                    .with(new StCompiled("/org/eolang/speco/1-1-coping.xsl"))
+                    .with(new StGuarded("/program/speco/obj", this.specialization))
+                    .with(
+                        new StGuarded(
+                            "/program/speco/version/o",
+                            new StCompiled("/org/eolang/speco/1-3-extension.xsl")
+                        )
+                    )
+                    .with(new StRules()),
+                shift -> this.metrics.measured(Budget.timed(shift))
+            )
+        ).pass(
+            new Xsline(
+                this.metrics.measured(
+                    new StGuarded(StGuarded.METHODS, new StCompiled(Stylesheets.WRAP))
+                )
+            ).pass(xml)
+        );
+    }
+}
@@ -40,4 +40,16 @@ public interface Speco {
      * @throws IOException In case of errors when reading from file
      */
     XML transform(XML path) throws IOException;
+
+    /**
+     * Applies XSL-transformations to XML of the file.
+     *
+     * @param name Name of the file, relative to the source directory
+     * @param xml Program of the file
+     * @return Transformed program
+     * @throws IOException In case of errors when transforming
+     */
+    default XML transform(final String name, final XML xml) throws IOException {
+        return this.transform(xml);
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Event of Java Flight Recorder about a stage of specialization of a file.
+ *
+ * <p>Fields are filled in only if the event is going to be committed,
+ * so that nothing is computed when the recording is off.</p>
+ *
+ * @since 0.0.4
+ */
+@Category("Speco")
+abstract class SpecoEvent extends Event {
+
+    /**
+     * Name of the file, empty for the stages of the whole run.
+     */
+    @Label("File")
+    String file;
+
+    /**
+     * Id of the stage.
+     */
+    @Label("Stage")
+    String stage;
+
+    /**
+     * Number of nodes of the output document, zero if not known.
+     */
+    @Label("Nodes")
+    long nodes;
+
+    /**
+     * Commits the event, if it is recorded.
+     *
+     * @param name Name of the file or NULL
+     * @param uid Id of the stage
+     * @param size Number of nodes of the output document
+     */
+    final void commit(final String name, final String uid, final Size size) {
+        this.end();
+        if (this.shouldCommit()) {
+            if (name == null) {
+                this.file = "";
+            } else {
+                this.file = name;
+            }
+            this.stage = uid;
+            this.nodes = size.nodes();
+            this.commit();
+        }
+    }
+
+    /**
+     * Size of the document, computed only if the event is recorded.
+     *
+     * @since 0.0.4
+     */
+    interface Size {
+        /**
+         * Number of nodes.
+         *
+         * @return Number of nodes
+         */
+        long nodes();
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
+import org.cactoos.scalar.Unchecked;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Speco, which splits the program into independent components
+ * and specializes them concurrently.
+ *
+ * <p>Two top-level objects are in one component, if one of them refers to
+ * the other by name, if AOI infers one of them for an attribute of the other,
+ * or if one of them calls an attribute, which the other declares: the object
+ * the attribute is called on is not known, while the rules look fences up
+ * by their names only. A free attribute, on which nothing is called, may be
+ * any object, so AOI infers all the objects for it and the whole file
+ * collapses into one component, which is specialized as is. Each component
+ * is specialized as a separate program with the same header. Then the objects of the program are put back
+ * in their original order, followed by the new objects of the components
+ * in the order of their first objects, so the result doesn't depend
+ * on the order in which the components are finished.</p>
+ *
+ * @since 0.0.4
+ */
+final class SplitSpeco implements Speco {
+
+    /**
+     * Elements of the program, which are split into components.
+     */
+    private static final Set<String> SPLIT = new HashSet<>(
+        Arrays.asList("objects", "aoi", "speco")
+    );
+
+    /**
+     * Encapsulated speco.
+     */
+    private final Speco origin;
+
+    /**
+     * Threads of the components of all the files, started on first use.
+     */
+    private final Unchecked<ExecutorService> service;
+
+    /**
+     * Metrics of the shifts.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco
+     * @param threads Number of components specialized concurrently
+     */
+    SplitSpeco(final Speco origin, final int threads) {
+        this(origin, threads, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco
+     * @param threads Number of components specialized concurrently
+     * @param metrics Metrics of the shifts
+     */
+    SplitSpeco(final Speco origin, final int threads, final Metrics metrics) {
+        this.origin = origin;
+        this.service = SplitSpeco.pool(threads);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public XML transform(final XML xml) throws IOException {
+        return this.transform("", xml);
+    }
+
+    @Override
+    public XML transform(final String name, final XML xml) throws IOException {
+        final Document doc = Dom.copy(xml);
+        final List<Document> parts = this.metrics.measured(
+            "split", () -> SplitSpeco.parts(doc)
+        );
+        final XML result;
+        if (parts.size() < 2) {
+            result = this.origin.transform(name, xml);
+        } else {
+            final List<XML> done = SplitSpeco.specialized(
+                this.origin, name, parts, this.service.value(), this.metrics
+            );
+            result = this.metrics.measured("merge", () -> SplitSpeco.merged(doc, done));
+        }
+        return result;
+    }
+
+    /**
+     * Pool of threads, which specialize the components of all the files.
+     *
+     * <p>The pool is shared by the files transformed concurrently, so
+     * {@code --threads} and {@code --split} add up instead of multiplying,
+     * and the threads are started once per walk, not per file. They are
+     * daemons, so the pool doesn't need to be shut down.</p>
+     *
+     * @param threads Number of components specialized concurrently
+     * @return Pool, started on first use
+     */
+    static Unchecked<ExecutorService> pool(final int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        return new Unchecked<>(
+            new Synced<>(
+                new Sticky<>(
+                    () -> Executors.newFixedThreadPool(
+                        Math.max(1, threads),
+                        runnable -> {
+                            final Thread thread = new Thread(
+                                runnable,
+                                String.format("speco-split-%d", count.incrementAndGet())
+                            );
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * Specializes the components concurrently.
+     *
+     * @param origin Speco to apply to each component
+     * @param name Name of the file
+     * @param parts Components
+     * @param service Threads, which specialize the components
+     * @param metrics Metrics, which know the file of the current thread
+     * @return Specialized components, in the same order
+     * @throws IOException If some of them fails
+     */
+    static List<XML> specialized(final Speco origin, final String name,
+        final List<Document> parts, final ExecutorService service, final Metrics metrics)
+        throws IOException {
+        final String file = metrics.file();
+        final List<Future<XML>> futures = new ArrayList<>(parts.size());
+        try {
+            for (final Document part : parts) {
+                futures.add(
+                    service.submit(
+                        Budget.carried(
+                            () -> {
+                                metrics.file(file);
+                                return origin.transform(name, new XmlNode(part));
+                            }
+                        )
+                    )
+                );
+            }
+            final List<XML> done = new ArrayList<>(parts.size());
+            for (final Future<XML> future : futures) {
+                done.add(future.get());
+            }
+            return done;
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException("Failed to specialize a component", ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while specializing components", ex);
+        } finally {
+            for (final Future<XML> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Splits the program into independent components.
+     *
+     * @param doc Program
+     * @return Programs with the objects of each component, in the order
+     *  of their first objects, or one program, if it is not split
+     */
+    static List<Document> parts(final Document doc) {
+        final Element program = doc.getDocumentElement();
+        final Element objects = Dom.first(program, "objects");
+        final List<Document> parts = new ArrayList<>(0);
+        if (objects == null) {
+            parts.add(doc);
+            return parts;
+        }
+        final List<Element> tops = Dom.children(objects, "o");
+        final Map<String, Integer> names = new HashMap<>(tops.size());
+        final Map<String, List<Integer>> declared = new HashMap<>(0);
+        for (int idx = 0; idx < tops.size(); ++idx) {
+            names.put(tops.get(idx).getAttribute("name"), idx);
+            for (final Element attr : Dom.children(tops.get(idx), "o")) {
+                declared.computeIfAbsent(attr.getAttribute("name"), key -> new ArrayList<>(1))
+                    .add(idx);
+            }
+        }
+        final int[] roots = new int[tops.size()];
+        for (int idx = 0; idx < roots.length; ++idx) {
+            roots[idx] = idx;
+        }
+        for (int idx = 0; idx < tops.size(); ++idx) {
+            for (final Element obj : Dom.descendants(tops.get(idx), "o")) {
+                final String base = obj.getAttribute("base");
+                final Integer other = names.get(base);
+                if (other != null) {
+                    SplitSpeco.union(roots, idx, other);
+                }
+                if (base.startsWith(".")) {
+                    for (final int decl : declared.getOrDefault(
+                        base.substring(1), new ArrayList<>(0)
+                    )) {
+                        SplitSpeco.union(roots, idx, decl);
+                    }
+                }
+            }
+        }
+        final Element aoi = Dom.first(program, "aoi");
+        final List<Element> entries;
+        if (aoi == null) {
+            entries = new ArrayList<>(0);
+        } else {
+            entries = Dom.children(aoi, "obj");
+        }
+        for (final Element entry : entries) {
+            final Integer free = names.get(SplitSpeco.head(entry));
+            if (free != null) {
+                for (final Element inferred : Dom.descendants(entry, "obj")) {
+                    final Integer type = names.get(SplitSpeco.head(inferred));
+                    if (type != null) {
+                        SplitSpeco.union(roots, free, type);
+                    }
+                }
+            }
+        }
+        final Map<Integer, Integer> components = new HashMap<>(0);
+        for (int idx = 0; idx < roots.length; ++idx) {
+            components.putIfAbsent(SplitSpeco.find(roots, idx), components.size());
+        }
+        if (components.size() < 2) {
+            parts.add(doc);
+            return parts;
+        }
+        for (int idx = 0; idx < components.size(); ++idx) {
+            final Document part = Dom.copy(program.cloneNode(false));
+            final Element root = part.getDocumentElement();
+            for (Node child = program.getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+                if (SplitSpeco.SPLIT.contains(child.getNodeName())) {
+                    root.appendChild(part.importNode(child, false));
+                } else {
+                    root.appendChild(part.importNode(child, true));
+                }
+            }
+            parts.add(part);
+        }
+        for (int idx = 0; idx < tops.size(); ++idx) {
+            final Document part = parts.get(components.get(SplitSpeco.find(roots, idx)));
+            Dom.first(part.getDocumentElement(), "objects")
+                .appendChild(part.importNode(tops.get(idx), true));
+        }
+        for (final Element entry : entries) {
+            final Integer free = names.get(SplitSpeco.head(entry));
+            final Document part;
+            if (free == null) {
+                part = parts.get(0);
+            } else {
+                part = parts.get(components.get(SplitSpeco.find(roots, free)));
+            }
+            Dom.first(part.getDocumentElement(), "aoi")
+                .appendChild(part.importNode(entry, true));
+        }
+        return parts;
+    }
+
+    /**
+     * Merges the specialized components back into one program.
+     *
+     * @param doc Original program
+     * @param done Specialized components, in the order of their first objects
+     * @return Program
+     */
+    static XML merged(final Document doc, final List<XML> done) {
+        final Map<String, Integer> order = new HashMap<>(0);
+        for (final Element obj : Dom.children(
+            Dom.first(doc.getDocumentElement(), "objects"), "o"
+        )) {
+            order.put(obj.getAttribute("name"), order.size());
+        }
+        final Document merged = Dom.copy(done.get(0));
+        final Element program = merged.getDocumentElement();
+        final Element[] kept = new Element[order.size()];
+        final List<Element> added = new ArrayList<>(0);
+        for (final XML part : done) {
+            final Element root = ((Document) part.node()).getDocumentElement();
+            for (Node child = root.getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+                if ("objects".equals(child.getNodeName())) {
+                    for (final Element obj : Dom.children(child, "o")) {
+                        final Integer idx = order.get(obj.getAttribute("name"));
+                        final Element imported = (Element) merged.importNode(obj, true);
+                        if (idx == null) {
+                            added.add(imported);
+                        } else {
+                            kept[idx] = imported;
+                        }
+                    }
+                } else if (part != done.get(0) && SplitSpeco.SPLIT.contains(child.getNodeName())) {
+                    Element target = Dom.first(program, child.getNodeName());
+                    if (target == null) {
+                        target = merged.createElement(child.getNodeName());
+                        program.appendChild(target);
+                    }
+                    for (Node node = child.getFirstChild(); node != null;
+                        node = node.getNextSibling()) {
+                        target.appendChild(merged.importNode(node, true));
+                    }
+                }
+            }
+        }
+        final Element objects = Dom.first(program, "objects");
+        while (objects.getFirstChild() != null) {
+            objects.removeChild(objects.getFirstChild());
+        }
+        for (final Element obj : kept) {
+            if (obj != null) {
+                objects.appendChild(obj);
+            }
+        }
+        for (final Element obj : added) {
+            objects.appendChild(obj);
+        }
+        return new XmlNode(merged);
+    }
+
+    /**
+     * Name of the top-level object of the entry of AOI.
+     *
+     * @param entry Entry with FQN
+     * @return Name of the top-level object
+     */
+    private static String head(final Element entry) {
+        final String fqn = entry.getAttribute("fqn");
+        final int dot = fqn.indexOf('.');
+        final String head;
+        if (dot < 0) {
+            head = fqn;
+        } else {
+            head = fqn.substring(0, dot);
+        }
+        return head;
+    }
+
+    /**
+     * Finds the representative of the component.
+     *
+     * @param roots Parents of the objects in the components
+     * @param idx Object
+     * @return Representative
+     */
+    private static int find(final int[] roots, final int idx) {
+        int root = idx;
+        while (roots[root] != root) {
+            roots[root] = roots[roots[root]];
+            root = roots[root];
+        }
+        return root;
+    }
+
+    /**
+     * Joins the components of two objects.
+     *
+     * @param roots Parents of the objects in the components
+     * @param first First object
+     * @param second Second object
+     */
+    private static void union(final int[] roots, final int first, final int second) {
+        final int left = SplitSpeco.find(roots, first);
+        final int right = SplitSpeco.find(roots, second);
+        if (left < right) {
+            roots[right] = left;
+        } else {
+            roots[left] = right;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import javax.xml.transform.TransformerException;
+import net.sf.saxon.tree.tiny.TinyBuilder;
+
+/**
+ * Shift, which applies a stylesheet compiled in {@link Stylesheets}.
+ *
+ * <p>The result is kept as the compact tree of Saxon, see {@link XmlTree},
+ * and is read by the next stylesheet without building DOM.</p>
+ *
+ * @since 0.0.4
+ */
+final class StCompiled implements Shift {
+
+    /**
+     * Path to the stylesheet in classpath.
+     */
+    private final String path;
+
+    /**
+     * Ctor.
+     *
+     * @param path Path to the stylesheet in classpath
+     */
+    StCompiled(final String path) {
+        this.path = path;
+    }
+
+    @Override
+    public String uid() {
+        final String name = this.path.substring(this.path.lastIndexOf('/') + 1);
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final TinyBuilder result = Stylesheets.builder();
+        try {
+            Stylesheets.compiled(this.path).newTransformer().transform(
+                XmlTree.source(xml),
+                result
+            );
+        } catch (final TransformerException ex) {
+            throw new IllegalArgumentException(
+                String.format("Failed to transform by '%s'", this.path),
+                ex
+            );
+        }
+        return new XmlTree(result.getCurrentRoot());
+    }
+}
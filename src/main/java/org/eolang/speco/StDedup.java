@@ -0,0 +1,253 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Shift, which keeps one copy of structurally identical specialized objects.
+ *
+ * <p>Specialized objects (the ones with {@code @spec}) of the same origin
+ * are identical, if they differ only in their names and in the names of
+ * identical specialized objects they refer to, directly or via their
+ * {@code with_*} attributes. Such objects are found by partition refinement:
+ * all of them start in one class and the classes are split by the structure,
+ * where the references are replaced by the classes, until they stop
+ * splitting. The first object of each class stays, the others are removed
+ * and the references to them are redirected to the first one. Their
+ * {@code /program/speco/version} entries are removed as well, so the
+ * uncleared XMIR names only the versions, which are still in the output.</p>
+ *
+ * @since 0.0.4
+ */
+final class StDedup implements Shift {
+
+    @Override
+    public String uid() {
+        return "dedup";
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final Document doc = Dom.copy(xml);
+        final Element objects = Dom.first(doc.getDocumentElement(), "objects");
+        if (objects != null) {
+            final Map<String, Element> versions = new LinkedHashMap<>(0);
+            for (final Element obj : Dom.children(objects, "o")) {
+                if (obj.hasAttribute("spec")) {
+                    versions.put(obj.getAttribute("name"), obj);
+                }
+            }
+            final Map<String, String> removed = StDedup.duplicates(versions);
+            StDedup.redirect(objects, removed);
+            final Element speco = Dom.first(doc.getDocumentElement(), "speco");
+            if (speco != null) {
+                StDedup.forget(speco, removed);
+            }
+        }
+        return new XmlNode(doc);
+    }
+
+    /**
+     * Finds identical specialized objects.
+     *
+     * @param versions Specialized objects by names, in the document order
+     * @return Names of the objects to remove and the names of the ones to keep instead
+     */
+    private static Map<String, String> duplicates(final Map<String, Element> versions) {
+        final Map<String, Map<String, String>> withs = new HashMap<>(versions.size());
+        for (final Map.Entry<String, Element> version : versions.entrySet()) {
+            withs.put(version.getKey(), StDedup.withs(version.getValue(), versions));
+        }
+        Map<String, Integer> classes = new HashMap<>(versions.size());
+        for (final String name : versions.keySet()) {
+            classes.put(name, 0);
+        }
+        int count = 1;
+        int before;
+        do {
+            before = count;
+            final Map<String, Integer> keys = new HashMap<>(versions.size());
+            final Map<String, Integer> next = new HashMap<>(versions.size());
+            for (final Map.Entry<String, Element> version : versions.entrySet()) {
+                final StringBuilder key = new StringBuilder(0)
+                    .append(classes.get(version.getKey()))
+                    .append(':');
+                StDedup.shape(version.getValue(), classes, withs.get(version.getKey()), key);
+                Integer cls = keys.get(key.toString());
+                if (cls == null) {
+                    cls = keys.size();
+                    keys.put(key.toString(), cls);
+                }
+                next.put(version.getKey(), cls);
+            }
+            classes = next;
+            count = keys.size();
+        } while (count != before);
+        final Map<Integer, String> kept = new HashMap<>(count);
+        final Map<String, String> removed = new HashMap<>(0);
+        for (final String name : versions.keySet()) {
+            final String first = kept.putIfAbsent(classes.get(name), name);
+            if (first != null) {
+                removed.put(name, first);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the duplicates and redirects the references to them.
+     *
+     * @param objects Element {@code <objects/>}
+     * @param removed Names of the objects to remove and the names of the ones to keep instead
+     */
+    private static void redirect(final Element objects, final Map<String, String> removed) {
+        if (!removed.isEmpty()) {
+            for (final Element obj : Dom.children(objects, "o")) {
+                if (obj.hasAttribute("spec") && removed.containsKey(obj.getAttribute("name"))) {
+                    objects.removeChild(obj);
+                }
+            }
+            for (final Element obj : Dom.descendants(objects, "o")) {
+                final String kept = removed.get(obj.getAttribute("base"));
+                if (kept != null) {
+                    Dom.attr(obj, "base", kept);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the versions of the duplicates from {@code <speco/>} and redirects
+     * the references to them in the remaining versions.
+     *
+     * @param speco Element {@code <speco/>}
+     * @param removed Names of the removed objects and the names of the ones kept instead
+     */
+    private static void forget(final Element speco, final Map<String, String> removed) {
+        if (!removed.isEmpty()) {
+            for (final Element version : Dom.children(speco, "version")) {
+                for (final Element obj : Dom.children(version, "o")) {
+                    if (removed.containsKey(obj.getAttribute("name"))) {
+                        speco.removeChild(version);
+                        break;
+                    }
+                }
+            }
+            for (final Element obj : Dom.descendants(speco, "o")) {
+                final String kept = removed.get(obj.getAttribute("base"));
+                if (kept != null) {
+                    Dom.attr(obj, "base", kept);
+                }
+            }
+        }
+    }
+
+    /**
+     * Attributes {@code with_*} of the object, which refer to specialized objects.
+     *
+     * @param obj Specialized object
+     * @param versions Specialized objects by names
+     * @return Names of the specialized objects by the names of the attributes
+     */
+    private static Map<String, String> withs(final Element obj,
+        final Map<String, Element> versions) {
+        final Map<String, String> withs = new HashMap<>(0);
+        for (final Element attr : Dom.children(obj, "o")) {
+            if (attr.hasAttribute("abstract") && attr.getAttribute("name").startsWith("with_")) {
+                for (final Element phi : Dom.children(attr, "o")) {
+                    if ("@".equals(phi.getAttribute("name"))
+                        && versions.containsKey(phi.getAttribute("base"))) {
+                        withs.put(attr.getAttribute("name"), phi.getAttribute("base"));
+                    }
+                }
+            }
+        }
+        return withs;
+    }
+
+    /**
+     * Prints the structure of the object without its name, where the references
+     * to the specialized objects are replaced by their classes.
+     *
+     * @param element Element
+     * @param classes Classes of the specialized objects by their names
+     * @param withs Names of the specialized objects by the names of {@code with_*} attributes
+     * @param out Where to print
+     */
+    private static void shape(final Element element, final Map<String, Integer> classes,
+        final Map<String, String> withs, final StringBuilder out) {
+        out.append('<').append(element.getNodeName());
+        final NamedNodeMap attrs = element.getAttributes();
+        for (int idx = 0; idx < attrs.getLength(); ++idx) {
+            final Node attr = attrs.item(idx);
+            final String name = attr.getNodeName();
+            if ("name".equals(name) && element.hasAttribute("spec")) {
+                continue;
+            }
+            String value = attr.getNodeValue();
+            if ("base".equals(name)) {
+                value = StDedup.reference(value, classes, withs);
+            }
+            out.append(' ').append(name).append("=\"").append(value).append('"');
+        }
+        out.append('>');
+        final List<Element> children = Dom.children(element, "o");
+        if (children.isEmpty()) {
+            out.append(element.getTextContent());
+        }
+        for (final Element child : children) {
+            StDedup.shape(child, classes, withs, out);
+        }
+        out.append("</>");
+    }
+
+    /**
+     * Replaces the reference to a specialized object by its class.
+     *
+     * @param base Base of the object
+     * @param classes Classes of the specialized objects by their names
+     * @param withs Names of the specialized objects by the names of {@code with_*} attributes
+     * @return Base, where the name is replaced
+     */
+    private static String reference(final String base, final Map<String, Integer> classes,
+        final Map<String, String> withs) {
+        String ref = base;
+        if (classes.containsKey(base)) {
+            ref = String.format("#%d", classes.get(base));
+        } else if (base.startsWith(".") && withs.containsKey(base.substring(1))) {
+            ref = String.format(".#%d", classes.get(withs.get(base.substring(1))));
+        }
+        return ref;
+    }
+}
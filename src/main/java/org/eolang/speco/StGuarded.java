@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+/**
+ * Shift, which is applied only if the document has something to rewrite.
+ *
+ * <p>The precondition is an XPath, which finds the nodes the shift may
+ * change. If it finds nothing, the shift would copy the document as is,
+ * so the document is returned without applying the shift.</p>
+ *
+ * @since 0.0.4
+ */
+final class StGuarded implements Shift {
+
+    /**
+     * Precondition of the stylesheet, which wraps method calls.
+     */
+    static final String METHODS = "//o[@method]";
+
+    /**
+     * XPath evaluators, one per thread, since they are not thread-safe.
+     */
+    private static final ThreadLocal<XPath> XPATHS =
+        ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    /**
+     * XPath evaluators of Saxon, for the compact trees, one per thread.
+     */
+    private static final ThreadLocal<XPath> TREES =
+        ThreadLocal.withInitial(Stylesheets::xpath);
+
+    /**
+     * XPath of the nodes the shift may change.
+     */
+    private final String precondition;
+
+    /**
+     * Encapsulated shift.
+     */
+    private final Shift origin;
+
+    /**
+     * Ctor.
+     *
+     * @param precondition XPath of the nodes the shift may change
+     * @param origin Encapsulated shift
+     */
+    StGuarded(final String precondition, final Shift origin) {
+        this.precondition = precondition;
+        this.origin = origin;
+    }
+
+    @Override
+    public String uid() {
+        return this.origin.uid();
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final boolean matches;
+        try {
+            if (xml instanceof XmlTree) {
+                matches = (Boolean) StGuarded.TREES.get().evaluate(
+                    this.precondition, XmlTree.source(xml), XPathConstants.BOOLEAN
+                );
+            } else {
+                matches = (Boolean) StGuarded.XPATHS.get().evaluate(
+                    this.precondition, xml.node(), XPathConstants.BOOLEAN
+                );
+            }
+        } catch (final XPathExpressionException ex) {
+            throw new IllegalArgumentException(
+                String.format("Wrong precondition '%s'", this.precondition),
+                ex
+            );
+        }
+        final XML result;
+        if (matches) {
+            result = this.origin.apply(position, xml);
+        } else {
+            result = xml;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Shift, which removes specialized objects and helper attributes,
+ * which are not referred to.
+ *
+ * <p>Helper attributes are the ones the rules add: {@code with_*} and the
+ * fence attributes {@code *_as_tuple}. Objects of the program itself are
+ * the entries: they are never removed and everything they refer to, except
+ * their helper attributes, is live. A specialized object is live, if its
+ * name is the base of a live object. A helper attribute is live, if it is
+ * called by name from a live object; since the object it is called on is
+ * not known, the attributes with this name are live in all live objects.</p>
+ *
+ * @since 0.0.4
+ */
+final class StLiveness implements Shift {
+
+    @Override
+    public String uid() {
+        return "liveness";
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final Document doc = Dom.copy(xml);
+        final Element objects = Dom.first(doc.getDocumentElement(), "objects");
+        if (objects != null) {
+            final Marks marks = new Marks(Dom.children(objects, "o"));
+            for (final Element obj : Dom.children(objects, "o")) {
+                if (marks.live(obj)) {
+                    for (final Element child : Dom.children(obj, "o")) {
+                        if (StLiveness.helper(child) && !marks.called(child)) {
+                            obj.removeChild(child);
+                        }
+                    }
+                } else {
+                    objects.removeChild(obj);
+                }
+            }
+        }
+        return new XmlNode(doc);
+    }
+
+    /**
+     * Checks whether the object is a helper attribute of a top-level object.
+     *
+     * @param obj Object
+     * @return True if it is added by the rules
+     */
+    private static boolean helper(final Element obj) {
+        return "objects".equals(obj.getParentNode().getParentNode().getNodeName())
+            && obj.hasAttribute("abstract")
+            && (obj.getAttribute("name").startsWith("with_") || obj.hasAttribute("fence"));
+    }
+
+    /**
+     * Live objects and helper attributes.
+     *
+     * @since 0.0.4
+     */
+    private static final class Marks {
+
+        /**
+         * Top-level objects.
+         */
+        private final List<Element> objects;
+
+        /**
+         * Specialized objects by names.
+         */
+        private final Map<String, Element> versions;
+
+        /**
+         * Live top-level objects.
+         */
+        private final Set<Element> alive;
+
+        /**
+         * Names of the live helper attributes.
+         */
+        private final Set<String> helpers;
+
+        /**
+         * Objects to look through.
+         */
+        private final Deque<Element> todo;
+
+        /**
+         * Ctor.
+         *
+         * @param objects Top-level objects
+         */
+        Marks(final List<Element> objects) {
+            this.objects = objects;
+            this.versions = new HashMap<>(0);
+            this.alive = new HashSet<>(0);
+            this.helpers = new HashSet<>(0);
+            this.todo = new ArrayDeque<>(0);
+            for (final Element obj : objects) {
+                if (obj.hasAttribute("spec")) {
+                    this.versions.put(obj.getAttribute("name"), obj);
+                } else {
+                    this.alive.add(obj);
+                    this.todo.push(obj);
+                }
+            }
+            while (!this.todo.isEmpty()) {
+                this.visit(this.todo.pop());
+            }
+        }
+
+        /**
+         * Checks whether the top-level object is live.
+         *
+         * @param obj Top-level object
+         * @return True if it is live
+         */
+        boolean live(final Element obj) {
+            return this.alive.contains(obj);
+        }
+
+        /**
+         * Checks whether the helper attribute is called.
+         *
+         * @param helper Helper attribute
+         * @return True if it is called
+         */
+        boolean called(final Element helper) {
+            return this.helpers.contains(helper.getAttribute("name"));
+        }
+
+        /**
+         * Marks everything the object refers to, except the helper attributes,
+         * which are not called yet.
+         *
+         * @param obj Object
+         */
+        private void visit(final Element obj) {
+            for (final Element child : Dom.children(obj, "o")) {
+                if (StLiveness.helper(child) && !this.called(child)) {
+                    continue;
+                }
+                final String base = child.getAttribute("base");
+                final Element version = this.versions.get(base);
+                if (version != null && this.alive.add(version)) {
+                    this.todo.push(version);
+                }
+                if (base.startsWith(".") && this.helpers.add(base.substring(1))) {
+                    this.call(base.substring(1));
+                }
+                this.visit(child);
+            }
+        }
+
+        /**
+         * Marks the helper attributes with the name in the live objects.
+         *
+         * @param name Name of the helper attributes
+         */
+        private void call(final String name) {
+            for (final Element obj : this.objects) {
+                if (this.alive.contains(obj)) {
+                    for (final Element child : Dom.children(obj, "o")) {
+                        if (StLiveness.helper(child) && name.equals(child.getAttribute("name"))) {
+                            this.todo.push(child);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.io.OutputStream;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+import org.w3c.dom.Node;
+
+/**
+ * Shift, which records its time and sizes of the documents to {@link Metrics}.
+ *
+ * <p>The nodes are counted and the output is serialized outside
+ * of the measured time.</p>
+ *
+ * @since 0.0.4
+ */
+final class StMeasured implements Shift {
+
+    /**
+     * Origin shift.
+     */
+    private final Shift origin;
+
+    /**
+     * Metrics to record to.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin shift
+     * @param metrics Metrics to record to
+     */
+    StMeasured(final Shift origin, final Metrics metrics) {
+        this.origin = origin;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String uid() {
+        return this.origin.uid();
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final long input = StMeasured.nodes(xml);
+        final long start = System.nanoTime();
+        final XML output = this.origin.apply(position, xml);
+        final long nanos = System.nanoTime() - start;
+        this.metrics.add(
+            this.uid(), nanos, input, StMeasured.nodes(output), StMeasured.bytes(output)
+        );
+        return output;
+    }
+
+    /**
+     * Counts the nodes of the document, except attributes.
+     *
+     * @param xml Document
+     * @return Number of nodes
+     */
+    static long nodes(final XML xml) {
+        long nodes = XmlTree.size(xml);
+        if (nodes < 0L) {
+            nodes = StMeasured.nodes(xml.node());
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the nodes of the tree, except attributes.
+     *
+     * @param node Root of the tree
+     * @return Number of nodes
+     */
+    static long nodes(final Node node) {
+        long nodes = 1L;
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            nodes += StMeasured.nodes(child);
+        }
+        return nodes;
+    }
+
+    /**
+     * Size of the document, serialized as it is written to a file.
+     *
+     * @param xml Document
+     * @return Number of bytes
+     */
+    private static long bytes(final XML xml) {
+        final long[] size = new long[1];
+        final Transformer transformer = Stylesheets.identity();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        try {
+            transformer.transform(
+                XmlTree.source(xml),
+                new StreamResult(
+                    new OutputStream() {
+                        @Override
+                        public void write(final int data) {
+                            size[0] += 1L;
+                        }
+
+                        @Override
+                        public void write(final byte[] data, final int off, final int len) {
+                            size[0] += len;
+                        }
+                    }
+                )
+            );
+        } catch (final TransformerException ex) {
+            throw new IllegalStateException("Failed to serialize document", ex);
+        }
+        return size[0];
+    }
+}
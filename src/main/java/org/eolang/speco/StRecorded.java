@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.util.function.Supplier;
+
+/**
+ * Shift, which is recorded by Java Flight Recorder, see {@link SpecoEvent}.
+ *
+ * <p>When the recording is off, only the event object is created,
+ * the nodes are not counted.</p>
+ *
+ * @since 0.0.4
+ */
+final class StRecorded implements Shift {
+
+    /**
+     * Origin shift.
+     */
+    private final Shift origin;
+
+    /**
+     * Metrics, which know the file of the current thread.
+     */
+    private final Metrics metrics;
+
+    /**
+     * New events.
+     */
+    private final Supplier<SpecoEvent> events;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin shift
+     * @param metrics Metrics, which know the file of the current thread
+     * @param events New events
+     */
+    StRecorded(final Shift origin, final Metrics metrics, final Supplier<SpecoEvent> events) {
+        this.origin = origin;
+        this.metrics = metrics;
+        this.events = events;
+    }
+
+    @Override
+    public String uid() {
+        return this.origin.uid();
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final SpecoEvent event = this.events.get();
+        event.begin();
+        final XML output = this.origin.apply(position, xml);
+        event.commit(this.metrics.file(), this.uid(), () -> StMeasured.nodes(output));
+        return output;
+    }
+}
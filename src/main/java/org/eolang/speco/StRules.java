@@ -0,0 +1,592 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Shift, which applies the rules 2-7 of specialization in Java.
+ *
+ * <p>It produces the same document as the stylesheets from
+ * {@code 2-1-substitute-applications.xsl} to {@code 7-1-substitute-returned.xsl}
+ * applied one after another, but modifies one copy of the document in place,
+ * instead of copying the whole document by each of them.</p>
+ *
+ * <p>Each rule first finds what to change, reading the document as the
+ * stylesheet reads its source, and only then changes it.</p>
+ *
+ * @since 0.0.4
+ */
+final class StRules implements Shift {
+
+    @Override
+    public String uid() {
+        return "2-7-rules";
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final Document doc = Dom.copy(xml);
+        final Element program = doc.getDocumentElement();
+        final Element objects = Dom.first(program, "objects");
+        if (objects != null) {
+            final Element speco = Dom.first(program, "speco");
+            List<Element> versions = Collections.emptyList();
+            if (speco != null) {
+                versions = Dom.children(speco, "version");
+            }
+            StRules.substituteApplications(objects, versions);
+            StRules.addWith(objects, versions);
+            StRules.fenceTuples(objects);
+            StRules.substituteFence(objects);
+            StRules.substituteDominant(objects);
+            StRules.substituteReturned(objects);
+        }
+        return new XmlNode(doc);
+    }
+
+    /**
+     * Rule 2: substitutes applications of objects with applications
+     * of their specialized versions.
+     *
+     * @param objects Element {@code <objects/>}
+     * @param versions Elements {@code <version/>} of {@code <speco/>}
+     */
+    private static void substituteApplications(final Element objects,
+        final List<Element> versions) {
+        final Map<String, String> names = new HashMap<>(0);
+        for (final Element version : versions) {
+            if (version.hasAttribute("name")) {
+                for (final Element obj : Dom.children(version, "o")) {
+                    names.put(
+                        StRules.application(
+                            version.getAttribute("name"),
+                            String.format("%s_", version.getAttribute("spec"))
+                        ),
+                        obj.getAttribute("name")
+                    );
+                }
+            }
+        }
+        final Map<Element, String> bases = new LinkedHashMap<>(0);
+        for (final Element obj : Dom.descendants(objects, "o")) {
+            if (obj.hasAttribute("base")) {
+                final StringBuilder spec = new StringBuilder();
+                for (final Element arg : Dom.children(obj, "o")) {
+                    spec.append(arg.getAttribute("base")).append('_');
+                }
+                final String name = names.get(
+                    StRules.application(obj.getAttribute("base"), spec.toString())
+                );
+                if (name != null) {
+                    bases.put(obj, name);
+                }
+            }
+        }
+        for (final Map.Entry<Element, String> entry : bases.entrySet()) {
+            Dom.attr(entry.getKey(), "base", entry.getValue());
+        }
+    }
+
+    /**
+     * Rule 3: adds with-* attributes for the specialized versions of objects.
+     *
+     * @param objects Element {@code <objects/>}
+     * @param versions Elements {@code <version/>} of {@code <speco/>}
+     */
+    private static void addWith(final Element objects, final List<Element> versions) {
+        final Document doc = objects.getOwnerDocument();
+        final Map<Element, List<Element>> added = new LinkedHashMap<>(0);
+        for (final Element obj : Dom.children(objects, "o")) {
+            final List<Element> withs = new ArrayList<>(0);
+            for (final Element version : versions) {
+                if (StRules.versionOf(obj, version)) {
+                    for (final Element spec : Dom.children(version, "o")) {
+                        withs.add(StRules.with(doc, version, spec));
+                    }
+                }
+            }
+            added.put(obj, withs);
+        }
+        for (final Map.Entry<Element, List<Element>> entry : added.entrySet()) {
+            for (final Element with : entry.getValue()) {
+                entry.getKey().appendChild(with);
+            }
+        }
+    }
+
+    /**
+     * Rule 4: creates duplicates of fence attributes, which return a tuple
+     * with the returned object and the parent object.
+     *
+     * @param objects Element {@code <objects/>}
+     */
+    private static void fenceTuples(final Element objects) {
+        final Document doc = objects.getOwnerDocument();
+        final Map<Element, List<Element>> added = new LinkedHashMap<>(0);
+        for (final Element obj : Dom.descendants(objects, "o")) {
+            final List<Element> tuples = new ArrayList<>(0);
+            final String memory = StRules.memory(obj);
+            for (final Element attr : Dom.children(obj, "o")) {
+                if (attr.hasAttribute("abstract") && StRules.refers(attr, memory)) {
+                    tuples.add(StRules.tuple(doc, attr));
+                }
+            }
+            if (!tuples.isEmpty()) {
+                added.put(obj, tuples);
+            }
+        }
+        for (final Map.Entry<Element, List<Element>> entry : added.entrySet()) {
+            for (final Element tuple : entry.getValue()) {
+                entry.getKey().appendChild(tuple);
+            }
+        }
+    }
+
+    /**
+     * Rule 5: substitutes each reference to a fence attribute
+     * with a reference to its duplicate.
+     *
+     * @param objects Element {@code <objects/>}
+     */
+    private static void substituteFence(final Element objects) {
+        final Document doc = objects.getOwnerDocument();
+        final List<Element> all = Dom.descendants(objects, "o");
+        final Map<String, List<String>> fences = new HashMap<>(0);
+        for (final Element obj : all) {
+            if (obj.hasAttribute("fence")
+                && !((Element) obj.getParentNode()).hasAttribute("spec")) {
+                fences.computeIfAbsent(obj.getAttribute("fence"), key -> new ArrayList<>(1))
+                    .add(obj.getAttribute("name"));
+            }
+        }
+        final Map<Element, List<String>> found = new LinkedHashMap<>(0);
+        for (final Element obj : all) {
+            final List<String> names = fences.get(Dom.after(obj.getAttribute("base")));
+            if (names != null) {
+                found.put(obj, names);
+            }
+        }
+        for (final Map.Entry<Element, List<String>> entry : found.entrySet()) {
+            final Element obj = entry.getKey();
+            final List<String> names = entry.getValue();
+            final String name = obj.getAttribute("name");
+            final String tuple = String.format("%s_tuple", name);
+            Dom.attr(obj, "base", String.format(".%s", names.get(names.size() - 1)));
+            Dom.attr(obj, "name", tuple);
+            Dom.attr(obj, "fence_tuple", "");
+            final Node next = obj.getNextSibling();
+            for (int idx = 0; idx < names.size(); ++idx) {
+                final Element first = Dom.object(doc, "base", ".at", "method", "", "name", name);
+                first.appendChild(Dom.object(doc, "base", tuple));
+                first.appendChild(StRules.integer(doc, "00 00 00 00 00 00 00 00"));
+                obj.getParentNode().insertBefore(first, next);
+            }
+        }
+    }
+
+    /**
+     * Rule 6: substitutes each reference to an object with a reference to the parent
+     * object, returned by the previous fence attribute.
+     *
+     * @param objects Element {@code <objects/>}
+     */
+    private static void substituteDominant(final Element objects) {
+        final Document doc = objects.getOwnerDocument();
+        final List<Element> tuples = new ArrayList<>(0);
+        for (final Element obj : Dom.descendants(objects, "o")) {
+            if (obj.hasAttribute("fence_tuple")) {
+                tuples.add(obj);
+            }
+        }
+        final Map<Element, String> previous = new LinkedHashMap<>(0);
+        for (int idx = 1; idx < tuples.size(); ++idx) {
+            final Element tuple = tuples.get(idx);
+            for (int prev = idx - 1; prev >= 0; --prev) {
+                if (!StRules.ancestor(tuples.get(prev), tuple)) {
+                    previous.put(tuple, tuples.get(prev).getAttribute("name"));
+                    break;
+                }
+            }
+        }
+        for (final Map.Entry<Element, String> entry : previous.entrySet()) {
+            final Element tuple = entry.getKey();
+            final Element second = Dom.object(doc, "base", ".at", "method", "");
+            second.appendChild(Dom.object(doc, "base", entry.getValue()));
+            second.appendChild(StRules.integer(doc, "00 00 00 00 00 00 00 01"));
+            tuple.getParentNode().insertBefore(second, tuple);
+            while (tuple.getFirstChild() != null) {
+                tuple.removeChild(tuple.getFirstChild());
+            }
+        }
+    }
+
+    /**
+     * Rule 7: substitutes writes to memory in duplicates of fence attributes
+     * with their results and the further references with the "tmp" object.
+     *
+     * @param objects Element {@code <objects/>}
+     */
+    private static void substituteReturned(final Element objects) {
+        final Map<Element, List<Node>> replaced = new LinkedHashMap<>(0);
+        for (final Element obj : Dom.descendants(objects, "o")) {
+            final List<Node> nodes = StRules.returned(obj);
+            if (nodes != null) {
+                replaced.put(obj, nodes);
+            }
+        }
+        for (final Map.Entry<Element, List<Node>> entry : replaced.entrySet()) {
+            final Element obj = entry.getKey();
+            for (final Node node : entry.getValue()) {
+                obj.getParentNode().insertBefore(node, obj);
+            }
+            obj.getParentNode().removeChild(obj);
+        }
+    }
+
+    /**
+     * Replacement of the object by the rule 7.
+     *
+     * @param obj Element {@code <o/>} inside {@code <objects/>}
+     * @return Nodes to put instead of the object or NULL if it is not replaced
+     */
+    private static List<Node> returned(final Element obj) {
+        final Document doc = obj.getOwnerDocument();
+        final Element parent = StRules.parent(obj);
+        List<Node> nodes = null;
+        if (".write".equals(obj.getAttribute("base")) && StRules.fence(parent)) {
+            final Element bool = Dom.object(doc, "base", "bool", "data", "bytes");
+            bool.appendChild(doc.createTextNode("01"));
+            nodes = Collections.singletonList(bool);
+        } else if (parent != null && "o".equals(parent.getNodeName())
+            && "tuple".equals(parent.getAttribute("base"))
+            && StRules.fence(StRules.parent(parent))) {
+            final List<Element> items = Dom.children(parent, "o");
+            if (items.size() > 1 && items.get(1) == obj) {
+                nodes = Collections.singletonList(Dom.object(doc, "base", "tmp"));
+            } else if (items.get(0) == obj) {
+                nodes = StRules.written(StRules.parent(parent));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Objects written to memory in the body of the fence attribute duplicate,
+     * each with the "tmp" object made by the with-* attribute.
+     *
+     * @param body Body of the duplicate, which contains writes
+     * @return Nodes
+     */
+    private static List<Node> written(final Element body) {
+        final Document doc = body.getOwnerDocument();
+        final List<Element> writes = new ArrayList<>(0);
+        for (final Element obj : Dom.children(body, "o")) {
+            if (".write".equals(obj.getAttribute("base"))) {
+                writes.add(obj);
+            }
+        }
+        final List<Node> nodes = new ArrayList<>(0);
+        for (final Element write : writes) {
+            final Element target = Dom.first(write, "o");
+            if (target != null) {
+                final Element copy = (Element) target.cloneNode(false);
+                Dom.attr(copy, "base", String.format("%s.", Dom.after(target.getAttribute("base"))));
+                final Element tmp = Dom.object(
+                    doc,
+                    "base", String.format(".%s", StRules.withName(body)),
+                    "name", "tmp",
+                    "method", ""
+                );
+                for (Node child = target.getFirstChild(); child != null;
+                    child = child.getNextSibling()) {
+                    tmp.appendChild(child.cloneNode(true));
+                }
+                final Element value = doc.createElementNS(null, target.getNodeName());
+                for (final Element other : writes) {
+                    final List<Element> args = Dom.children(other, "o");
+                    if (args.size() > 1) {
+                        final Element arg = args.get(1);
+                        for (int idx = 0; idx < arg.getAttributes().getLength(); ++idx) {
+                            final Node attr = arg.getAttributes().item(idx);
+                            Dom.attr(value, attr.getNodeName(), attr.getNodeValue());
+                        }
+                        for (Node child = arg.getFirstChild(); child != null;
+                            child = child.getNextSibling()) {
+                            value.appendChild(StRules.processed(child));
+                        }
+                    }
+                }
+                tmp.appendChild(value);
+                copy.appendChild(tmp);
+                nodes.add(copy);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Copy of the node with the rule 7 applied to its descendants.
+     *
+     * @param node Node inside {@code <objects/>}
+     * @return Copy
+     */
+    private static Node processed(final Node node) {
+        final Node copy = node.cloneNode(false);
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            List<Node> nodes = null;
+            if (child.getNodeType() == Node.ELEMENT_NODE && "o".equals(child.getNodeName())) {
+                nodes = StRules.returned((Element) child);
+            }
+            if (nodes == null) {
+                copy.appendChild(StRules.processed(child));
+            } else {
+                for (final Node item : nodes) {
+                    copy.appendChild(item);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Name of the with-* attribute of the object, which owns the fence attribute.
+     *
+     * @param body Body of the duplicate of the fence attribute
+     * @return Name or empty string if there is no such attribute
+     */
+    private static String withName(final Element body) {
+        final Element owner = StRules.parent(StRules.parent(body));
+        String found = "";
+        if (owner != null) {
+            final boolean named = owner.hasAttribute("name");
+            final String name = owner.getAttribute("name");
+            for (final Element with : Dom.children(owner, "o")) {
+                final String candidate = with.getAttribute("name");
+                boolean matches = candidate.equals(String.format("with_%s", name));
+                if (named && candidate.startsWith("with_")) {
+                    for (final Element child : Dom.children(with, "o")) {
+                        if (child.hasAttribute("base") && name.equals(child.getAttribute("base"))) {
+                            matches = true;
+                        }
+                    }
+                }
+                if (matches) {
+                    found = candidate;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether the parent of the element is a fence attribute duplicate.
+     *
+     * @param element Element or NULL
+     * @return TRUE if it is
+     */
+    private static boolean fence(final Element element) {
+        final Element parent = StRules.parent(element);
+        return parent != null && parent.hasAttribute("fence");
+    }
+
+    /**
+     * Parent element.
+     *
+     * @param node Node or NULL
+     * @return Parent element or NULL if there is no one
+     */
+    private static Element parent(final Node node) {
+        Element parent = null;
+        if (node != null && node.getParentNode() instanceof Element) {
+            parent = (Element) node.getParentNode();
+        }
+        return parent;
+    }
+
+    /**
+     * Checks whether one element is an ancestor of another.
+     *
+     * @param ancestor Probable ancestor
+     * @param element Element
+     * @return TRUE if it is
+     */
+    private static boolean ancestor(final Element ancestor, final Element element) {
+        Node node = element.getParentNode();
+        while (node != null && node != ancestor) {
+            node = node.getParentNode();
+        }
+        return node != null;
+    }
+
+    /**
+     * Key of the application of the object to the arguments.
+     *
+     * @param name Name of the applied object
+     * @param spec Bases of the arguments, each followed by underscore
+     * @return Key
+     */
+    private static String application(final String name, final String spec) {
+        return String.format("%s %s", name, spec);
+    }
+
+    /**
+     * Checks whether the version specializes the object.
+     *
+     * @param obj Element {@code <o/>}
+     * @param version Element {@code <version/>}
+     * @return TRUE if it does
+     */
+    private static boolean versionOf(final Element obj, final Element version) {
+        final String name = version.getAttribute("name");
+        return version.hasAttribute("name")
+            && (obj.hasAttribute("name") && name.equals(obj.getAttribute("name"))
+            || obj.hasAttribute("spec") && name.equals(obj.getAttribute("spec")));
+    }
+
+    /**
+     * The with-* attribute, which makes the specialized version.
+     *
+     * @param doc Document
+     * @param version Element {@code <version/>}
+     * @param spec Specialized object of the version
+     * @return Element {@code <o/>}
+     */
+    private static Element with(final Document doc, final Element version,
+        final Element spec) {
+        final Element with = Dom.object(
+            doc, "abstract", "",
+            "name", String.format("with_%s", version.getAttribute("spec").replace('.', '_'))
+        );
+        final List<Element> free = new ArrayList<>(0);
+        for (final Element attr : Dom.children(spec, "o")) {
+            if (!attr.hasAttribute("base") && !attr.hasAttribute("abstract")) {
+                free.add(attr);
+            }
+        }
+        for (final Element attr : free) {
+            with.appendChild(Dom.object(doc, "name", attr.getAttribute("name")));
+        }
+        final Element phi = Dom.object(doc, "base", spec.getAttribute("name"), "name", "@");
+        for (final Element attr : free) {
+            phi.appendChild(Dom.object(doc, "base", attr.getAttribute("name")));
+        }
+        with.appendChild(phi);
+        return with;
+    }
+
+    /**
+     * Reference to the memory attribute of the object.
+     *
+     * @param obj Element {@code <o/>}
+     * @return Base, which refers to the first memory attribute
+     */
+    private static String memory(final Element obj) {
+        String name = "";
+        for (final Element attr : Dom.children(obj, "o")) {
+            if ("memory".equals(attr.getAttribute("base"))) {
+                name = attr.getAttribute("name");
+                break;
+            }
+        }
+        return String.format(".%s", name);
+    }
+
+    /**
+     * Checks whether the element or its descendants refer to the base.
+     *
+     * @param element Element
+     * @param base Base
+     * @return TRUE if they do
+     */
+    private static boolean refers(final Element element, final String base) {
+        boolean refers = element.hasAttribute("base")
+            && base.equals(element.getAttribute("base"));
+        for (Node child = element.getFirstChild(); child != null && !refers;
+            child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                refers = StRules.refers((Element) child, base);
+            }
+        }
+        return refers;
+    }
+
+    /**
+     * Duplicate of the fence attribute, which returns a tuple.
+     *
+     * @param doc Document
+     * @param attr Fence attribute
+     * @return Element {@code <o/>}
+     */
+    private static Element tuple(final Document doc, final Element attr) {
+        final String name = attr.getAttribute("name");
+        final Element tuple = doc.createElementNS(null, attr.getNodeName());
+        Dom.attr(tuple, "abstract", "");
+        Dom.attr(tuple, "name", String.format("%s_as_tuple", name));
+        Dom.attr(tuple, "fence", name);
+        for (final Element child : Dom.children(attr, "o")) {
+            if (child.hasAttribute("name") && "@".equals(child.getAttribute("name"))) {
+                final Element phi = (Element) child.cloneNode(false);
+                final List<Element> items = Dom.children(child, "o");
+                for (int idx = 0; idx < items.size() - 1; ++idx) {
+                    phi.appendChild(items.get(idx).cloneNode(true));
+                }
+                if (!items.isEmpty()) {
+                    final Element pair = Dom.object(doc, "base", "tuple", "data", "tuple");
+                    pair.appendChild(items.get(items.size() - 1).cloneNode(true));
+                    pair.appendChild(Dom.object(doc, "base", "^"));
+                    phi.appendChild(pair);
+                }
+                tuple.appendChild(phi);
+            } else {
+                tuple.appendChild(child.cloneNode(true));
+            }
+        }
+        return tuple;
+    }
+
+    /**
+     * Integer data object.
+     *
+     * @param doc Document
+     * @param bytes Bytes of the integer
+     * @return Element {@code <o/>}
+     */
+    private static Element integer(final Document doc, final String bytes) {
+        final Element integer = Dom.object(doc, "base", "int", "data", "bytes");
+        integer.appendChild(doc.createTextNode(bytes));
+        return integer;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Shift, which applies the rule 1-2 of specialization to all the objects at once.
+ *
+ * <p>It produces the same document as {@code 1-2-specialization.xsl} applied
+ * in {@link com.yegor256.xsline.StEndless}, but the stylesheet handles only
+ * the first {@code <obj/>} of {@code <speco/>} and copies the whole document
+ * on each iteration. Here the {@code <obj/>} elements are taken from
+ * a worklist one by one and their versions are built in a single pass over
+ * one copy of the document.</p>
+ *
+ * <p>Each {@code <obj/>} is counted in the {@link Budget} as an iteration
+ * of the stylesheet, before its versions are built.</p>
+ *
+ * @since 0.0.4
+ */
+final class StSpecialization implements Shift {
+
+    /**
+     * Budget, which each {@code <obj/>} of the worklist spends as an iteration.
+     */
+    private final Budget budget;
+
+    /**
+     * Ctor.
+     */
+    StSpecialization() {
+        this(Budget.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param budget Budget, which each {@code <obj/>} of the worklist spends
+     *  as an iteration of the stylesheet
+     */
+    StSpecialization(final Budget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public String uid() {
+        return "1-2-specialization";
+    }
+
+    @Override
+    public XML apply(final int position, final XML xml) {
+        final Document doc = Dom.copy(xml);
+        final Element program = doc.getDocumentElement();
+        final Element speco = Dom.first(program, "speco");
+        if (speco != null) {
+            this.specialize(doc, speco, Dom.first(program, "objects"));
+        }
+        return new XmlNode(doc);
+    }
+
+    /**
+     * Replaces each {@code <obj/>} of {@code <speco/>} with its versions.
+     *
+     * @param doc Document
+     * @param speco Element {@code <speco/>}
+     * @param objects Element {@code <objects/>}
+     */
+    private void specialize(final Document doc, final Element speco,
+        final Element objects) {
+        final Map<String, List<Element>> originals = new HashMap<>(0);
+        if (objects != null) {
+            for (final Element obj : Dom.children(objects, "o")) {
+                originals.computeIfAbsent(obj.getAttribute("name"), key -> new ArrayList<>(1))
+                    .add(obj);
+            }
+        }
+        final Map<String, List<Element>> versions = new HashMap<>(0);
+        for (final Element version : Dom.children(speco, "version")) {
+            versions.computeIfAbsent(version.getAttribute("name"), key -> new ArrayList<>(1))
+                .add(version);
+        }
+        for (final Element obj : Dom.children(speco, "obj")) {
+            final String fqn = obj.getAttribute("fqn");
+            final String name = Dom.before(fqn);
+            final String var = Dom.after(fqn);
+            final List<Element> inferred = new ArrayList<>(0);
+            for (final Element types : Dom.children(obj, "inferred")) {
+                inferred.addAll(Dom.children(types, "obj"));
+            }
+            final List<Element> existing = versions.getOrDefault(
+                name, Collections.emptyList()
+            );
+            if (existing.isEmpty()) {
+                this.budget.iteration(inferred.size());
+            } else {
+                this.budget.iteration((long) existing.size() * (inferred.size() - 1));
+            }
+            final List<Element> created = new ArrayList<>(0);
+            final List<Element> origins = originals.getOrDefault(
+                name, Collections.emptyList()
+            );
+            if (existing.isEmpty()) {
+                for (final Element type : inferred) {
+                    final String spec = type.getAttribute("fqn");
+                    created.add(
+                        StSpecialization.version(
+                            doc, origins, new String[] {name, var, spec},
+                            String.format("%s_spec_%s_%s", name, var, spec.replace('.', '_'))
+                        )
+                    );
+                }
+            } else {
+                for (final Element version : existing) {
+                    final Element first = Dom.first(version, "o");
+                    String objname = "";
+                    if (first != null) {
+                        objname = first.getAttribute("name");
+                    }
+                    for (final Element type : inferred) {
+                        final String spec = type.getAttribute("fqn");
+                        created.add(
+                            StSpecialization.version(
+                                doc, origins,
+                                new String[] {
+                                    name,
+                                    String.format("%s_%s", version.getAttribute("var"), var),
+                                    String.format("%s_%s", version.getAttribute("spec"), spec),
+                                },
+                                String.format("%s_spec_%s_%s", objname, var, spec)
+                            )
+                        );
+                    }
+                    speco.removeChild(version);
+                }
+            }
+            for (final Element version : created) {
+                speco.insertBefore(version, obj);
+            }
+            speco.removeChild(obj);
+            versions.put(name, created);
+        }
+        for (final Element version : versions.getOrDefault("", Collections.emptyList())) {
+            speco.removeChild(version);
+        }
+    }
+
+    /**
+     * Creates new version of the object.
+     *
+     * @param doc Document
+     * @param origins Original objects with the name
+     * @param attrs Name, variable and specification of the version
+     * @param objname Name of the specialized object
+     * @return Element {@code <version/>}
+     */
+    private static Element version(final Document doc, final List<Element> origins,
+        final String[] attrs, final String objname) {
+        final Element version = doc.createElementNS(null, "version");
+        version.setAttributeNS(null, "name", attrs[0]);
+        version.setAttributeNS(null, "var", attrs[1]);
+        version.setAttributeNS(null, "spec", attrs[2]);
+        for (final Element origin : origins) {
+            final Element copy = (Element) origin.cloneNode(true);
+            Dom.attr(copy, "name", objname);
+            if (!copy.hasAttribute("spec")) {
+                copy.setAttributeNS(null, "spec", attrs[0]);
+            }
+            version.appendChild(copy);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import com.yegor256.xsline.Xsline;
+import java.io.IOException;
+
+/**
+ * Speco, which applies one more shift to the output of the encapsulated one,
+ * like {@link StDedup} or {@link StLiveness}.
+ *
+ * @since 0.0.4
+ */
+final class StepSpeco implements Speco {
+
+    /**
+     * Encapsulated speco.
+     */
+    private final Speco origin;
+
+    /**
+     * Shift to apply after the encapsulated speco.
+     */
+    private final Shift step;
+
+    /**
+     * Metrics of the shifts.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco.
+     * @param step Shift to apply after the encapsulated speco
+     */
+    StepSpeco(final Speco origin, final Shift step) {
+        this(origin, step, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Encapsulated speco.
+     * @param step Shift to apply after the encapsulated speco
+     * @param metrics Metrics of the shifts
+     */
+    StepSpeco(final Speco origin, final Shift step, final Metrics metrics) {
+        this.origin = origin;
+        this.step = step;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public XML transform(final XML xml) throws IOException {
+        return this.transform("", xml);
+    }
+
+    @Override
+    public XML transform(final String name, final XML xml) throws IOException {
+        return new Xsline(this.metrics.measured(this.step)).pass(
+            this.origin.transform(name, xml)
+        );
+    }
+}
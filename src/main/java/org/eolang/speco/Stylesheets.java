@@ -0,0 +1,282 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.xpath.XPath;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.TransformerFactoryImpl;
+import net.sf.saxon.tree.tiny.TinyBuilder;
+import net.sf.saxon.xpath.XPathFactoryImpl;
+
+/**
+ * Registry of the compiled stylesheets, shared by all specos of the JVM.
+ *
+ * <p>Each stylesheet is looked up in the classpath and compiled only once,
+ * the compiled {@link Templates} are thread-safe and are reused
+ * for every transformed document.</p>
+ *
+ * @since 0.0.4
+ */
+final class Stylesheets {
+
+    /**
+     * Stylesheet from EO parser, which wraps method calls.
+     */
+    static final String WRAP = "/org/eolang/parser/wrap-method-calls.xsl";
+
+    /**
+     * Stylesheet which removes temporary tags.
+     */
+    static final String CLEAR = "/org/eolang/speco/clear.xsl";
+
+    /**
+     * Stylesheets of the speco algorithm.
+     */
+    private static final List<String> RULES = Collections.unmodifiableList(
+        Arrays.asList(
+            "/org/eolang/speco/1-1-coping.xsl",
+            "/org/eolang/speco/1-2-specialization.xsl",
+            "/org/eolang/speco/1-3-extension.xsl",
+            "/org/eolang/speco/2-1-substitute-applications.xsl",
+            "/org/eolang/speco/3-1-add-with.xsl",
+            "/org/eolang/speco/4-1-fence-tuples.xsl",
+            "/org/eolang/speco/5-1-substitute-fence.xsl",
+            "/org/eolang/speco/6-1-substitute-dominant.xsl",
+            "/org/eolang/speco/7-1-substitute-returned.xsl"
+        )
+    );
+
+    /**
+     * All the stylesheets used by specos.
+     */
+    private static final List<String> ALL = Collections.unmodifiableList(
+        Stylesheets.all()
+    );
+
+    /**
+     * Configuration of Saxon, shared by all the factories, so that the tree
+     * built by one stylesheet is read by the next one as it is.
+     */
+    private static final Configuration CONFIG = new Configuration();
+
+    /**
+     * Factory of the identity transformers, it is not thread-safe.
+     */
+    private static final TransformerFactory FACTORY = new TransformerFactoryImpl(
+        Stylesheets.CONFIG
+    );
+
+    /**
+     * Factories of the templates, one per thread, since they are not thread-safe.
+     */
+    private static final ThreadLocal<TransformerFactory> FACTORIES =
+        ThreadLocal.withInitial(() -> new TransformerFactoryImpl(Stylesheets.CONFIG));
+
+    /**
+     * Compiled stylesheets by their paths in classpath.
+     */
+    private static final Map<String, Templates> COMPILED = new ConcurrentHashMap<>(0);
+
+    /**
+     * Whether the stylesheets are compiled in the background already.
+     */
+    private static final AtomicBoolean WARM = new AtomicBoolean();
+
+    /**
+     * Ctor.
+     */
+    private Stylesheets() {
+    }
+
+    /**
+     * Compiled stylesheet by its path in classpath.
+     *
+     * @param path Path to the stylesheet in classpath
+     * @return Compiled stylesheet
+     */
+    static Templates compiled(final String path) {
+        return Stylesheets.COMPILED.computeIfAbsent(path, Stylesheets::compile);
+    }
+
+    /**
+     * Builder of the compact immutable tree, to which stylesheets write
+     * their results.
+     *
+     * @return New builder
+     */
+    static TinyBuilder builder() {
+        return new TinyBuilder(Stylesheets.CONFIG.makePipelineConfiguration());
+    }
+
+    /**
+     * XPath evaluator, which reads the compact trees built by
+     * the stylesheets, it is not thread-safe.
+     *
+     * @return New evaluator
+     */
+    static XPath xpath() {
+        return new XPathFactoryImpl(Stylesheets.CONFIG).newXPath();
+    }
+
+    /**
+     * Transformer, which copies the document as is.
+     *
+     * @return New identity transformer
+     */
+    static Transformer identity() {
+        try {
+            synchronized (Stylesheets.FACTORY) {
+                return Stylesheets.FACTORY.newTransformer();
+            }
+        } catch (final TransformerConfigurationException ex) {
+            throw new IllegalStateException("Failed to create identity transformer", ex);
+        }
+    }
+
+    /**
+     * Starts compiling all the stylesheets used by specos in the background,
+     * so that the compilation overlaps with reading and parsing of the programs.
+     *
+     * <p>Stylesheet, which is needed before it is compiled in the background,
+     * is compiled by the thread which needs it. Failures are only logged
+     * here: they are thrown to the thread which needs the stylesheet.</p>
+     *
+     * <p>The compiled stylesheets are kept for the JVM, so the thread
+     * is started only by the first call, not by each request to the daemon.</p>
+     */
+    static void warmup() {
+        if (Stylesheets.WARM.compareAndSet(false, true)) {
+            final Thread thread = new Thread(
+                () -> {
+                    for (final String path : Stylesheets.ALL) {
+                        try {
+                            Stylesheets.compiled(path);
+                        } catch (final IllegalArgumentException | IllegalStateException ex) {
+                            Logger.debug(
+                                Stylesheets.class, "Failed to compile %s in advance: %[exception]s",
+                                path, ex
+                            );
+                        }
+                    }
+                },
+                "speco-warmup"
+            );
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Hash of the sources of all the stylesheets used by specos.
+     *
+     * @param digest Digest to update with the sources
+     */
+    static void digest(final MessageDigest digest) {
+        final byte[] buffer = new byte[8192];
+        for (final String path : Stylesheets.ALL) {
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            try (InputStream stream = Stylesheets.resource(path).openStream()) {
+                int len = stream.read(buffer);
+                while (len >= 0) {
+                    digest.update(buffer, 0, len);
+                    len = stream.read(buffer);
+                }
+            } catch (final IOException ex) {
+                throw new IllegalStateException(
+                    String.format("Failed to read '%s' from classpath", path),
+                    ex
+                );
+            }
+        }
+    }
+
+    /**
+     * Lists all the stylesheets used by specos.
+     *
+     * @return Paths to the stylesheets in classpath
+     */
+    private static List<String> all() {
+        final List<String> paths = new ArrayList<>(Stylesheets.RULES);
+        paths.add(Stylesheets.WRAP);
+        paths.add("/org/eolang/parser/add-refs.xsl");
+        paths.add("/org/eolang/parser/expand-aliases.xsl");
+        paths.add("/org/eolang/parser/resolve-aliases.xsl");
+        paths.add(Stylesheets.CLEAR);
+        return paths;
+    }
+
+    /**
+     * Finds the stylesheet in classpath.
+     *
+     * @param path Path to the stylesheet in classpath
+     * @return URL of the stylesheet
+     */
+    private static URL resource(final String path) {
+        final URL url = Stylesheets.class.getResource(path);
+        if (url == null) {
+            throw new IllegalArgumentException(
+                String.format("Path '%s' not found in classpath", path)
+            );
+        }
+        return url;
+    }
+
+    /**
+     * Compiles the stylesheet.
+     *
+     * @param path Path to the stylesheet in classpath
+     * @return Compiled stylesheet
+     */
+    private static Templates compile(final String path) {
+        final URL url = Stylesheets.resource(path);
+        try (InputStream stream = url.openStream()) {
+            return Stylesheets.FACTORIES.get().newTemplates(
+                new StreamSource(stream, url.toString())
+            );
+        } catch (final IOException | TransformerConfigurationException ex) {
+            throw new IllegalStateException(
+                String.format("Failed to compile '%s' from classpath", path),
+                ex
+            );
+        }
+    }
+}
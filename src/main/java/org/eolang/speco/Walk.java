@@ -24,10 +24,22 @@
 package org.eolang.speco;
 
 import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import net.sf.saxon.tree.tiny.TinyBuilder;
+import org.w3c.dom.Document;
 
 /**
  * The interface encapsulating applying of specialization.
@@ -48,11 +60,50 @@ public interface Walk {
     /**
      * Read XML from file.
      *
+     * <p>The file is parsed right from the disk,
+     * without reading the whole content into a string,
+     * into the compact tree, see {@link XmlTree}.</p>
+     *
      * @param path Path to input file.
      * @return Read XML
      * @throws IOException In case of errors when reading from file
      */
     static XML toXml(final Path path) throws IOException {
-        return new XMLDocument(Files.readString(path));
+        final TinyBuilder result = Stylesheets.builder();
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            Stylesheets.identity().transform(
+                new StreamSource(input, path.toUri().toString()),
+                result
+            );
+        } catch (final TransformerException ex) {
+            throw new IOException(String.format("Failed to read %s", path), ex);
+        }
+        return new XmlTree(result.getCurrentRoot());
+    }
+
+    /**
+     * Write XML to file.
+     *
+     * <p>The document is serialized right to the file, in the same format as
+     * {@link XML#toString()} produces, without building a string in memory.</p>
+     *
+     * @param xml XML to write
+     * @param path Path to output file
+     * @throws IOException In case of errors when writing to file
+     */
+    static void toFile(final XML xml, final Path path) throws IOException {
+        final Source source = XmlTree.source(xml);
+        final Transformer transformer = Stylesheets.identity();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.VERSION, "1.0");
+        if (source instanceof DOMSource
+            && !(((DOMSource) source).getNode() instanceof Document)) {
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        }
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+            transformer.transform(source, new StreamResult(output));
+        } catch (final TransformerException ex) {
+            throw new IOException(String.format("Failed to write %s", path), ex);
+        }
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Walk, which is run again each time files of the directory tree are changed.
+ *
+ * <p>Events are collected until no more of them come for the debounce
+ * interval, so that saving several files at once makes one run. Files,
+ * which are not changed, are skipped by the walk itself, since their
+ * outputs are fresh in the manifest, see {@link Manifest}, and the stylesheets
+ * stay compiled between the runs, see {@link Stylesheets}. The time from
+ * the first change of each file to the end of the run is logged.</p>
+ *
+ * @since 0.0.4
+ */
+final class Watch {
+
+    /**
+     * Directory to watch.
+     */
+    private final Path dir;
+
+    /**
+     * Walk to run.
+     */
+    private final Walk walk;
+
+    /**
+     * Debounce interval in milliseconds.
+     */
+    private final long debounce;
+
+    /**
+     * Ctor.
+     *
+     * @param dir Directory to watch
+     * @param walk Walk to run
+     */
+    Watch(final Path dir, final Walk walk) {
+        this(dir, walk, 50L);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param dir Directory to watch
+     * @param walk Walk to run
+     * @param debounce Debounce interval in milliseconds
+     */
+    Watch(final Path dir, final Walk walk, final long debounce) {
+        this.dir = dir;
+        this.walk = walk;
+        this.debounce = debounce;
+    }
+
+    /**
+     * Runs the walk, and then runs it again after each change,
+     * until the thread is interrupted.
+     *
+     * @throws IOException If fails to watch the directory
+     */
+    void exec() throws IOException {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            Watch.register(service, this.dir);
+            this.run(new TreeMap<>());
+            while (!Thread.currentThread().isInterrupted()) {
+                final Map<String, Long> changed = new TreeMap<>();
+                WatchKey key = service.take();
+                while (key != null) {
+                    this.collect(service, key, changed);
+                    key = service.poll(this.debounce, TimeUnit.MILLISECONDS);
+                }
+                if (!changed.isEmpty()) {
+                    this.run(changed);
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the walk and logs the latency of each changed file, which still
+     * exists, so that temporary files of editors are not reported.
+     *
+     * @param changed Times of the first changes by names of the files
+     */
+    private void run(final Map<String, Long> changed) {
+        try {
+            this.walk.exec();
+            final long end = System.nanoTime();
+            for (final Map.Entry<String, Long> entry : changed.entrySet()) {
+                if (Files.exists(this.dir.resolve(entry.getKey()))) {
+                    Logger.info(
+                        this, "%s specialized in %[nano]s",
+                        entry.getKey(), end - entry.getValue()
+                    );
+                }
+            }
+        } catch (final IOException ex) {
+            Logger.error(this, "Failed to specialize %s: %[exception]s", this.dir, ex);
+        }
+    }
+
+    /**
+     * Collects the names of the changed files from the key, relative to
+     * the watched directory, watches new subdirectories, taking the files
+     * already created there as changed, and resets the key.
+     *
+     * @param service Watch service
+     * @param key Key with events
+     * @param changed Times of the first changes by names of the files
+     * @throws IOException If fails to watch a new subdirectory
+     */
+    private void collect(final WatchService service, final WatchKey key,
+        final Map<String, Long> changed) throws IOException {
+        final long now = System.nanoTime();
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                final Path path = ((Path) key.watchable()).resolve((Path) event.context());
+                if (Files.isDirectory(path)) {
+                    Watch.register(service, path);
+                    for (final Path file : Batch.files(path)) {
+                        changed.putIfAbsent(Batch.name(this.dir, file), now);
+                    }
+                } else {
+                    changed.putIfAbsent(Batch.name(this.dir, path), now);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Watches the directory and all its subdirectories.
+     *
+     * @param service Watch service
+     * @param root Root of the directory tree
+     * @throws IOException If fails to register
+     */
+    private static void register(final WatchService service, final Path root)
+        throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (final Path dir : dirs.filter(Files::isDirectory).collect(Collectors.toList())) {
+                dir.register(
+                    service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+                );
+            }
+        }
+    }
+}
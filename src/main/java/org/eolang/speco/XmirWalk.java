@@ -23,9 +23,11 @@
  */
 package org.eolang.speco;
 
+import com.jcabi.xml.XML;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 
 /**
  * The class encapsulating applying of specialization to XMIR.
@@ -48,6 +50,21 @@ public final class XmirWalk implements Walk {
      */
     private final Speco speco;
 
+    /**
+     * Number of files transformed concurrently.
+     */
+    private final int threads;
+
+    /**
+     * Options the outputs are produced with.
+     */
+    private final String options;
+
+    /**
+     * Metrics of the stages.
+     */
+    private final Metrics metrics;
+
     /**
      * Ctor.
      *
@@ -59,20 +76,109 @@ public final class XmirWalk implements Walk {
         final Path input,
         final Path output,
         final Speco speco
+    ) {
+        this(input, output, speco, 1);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     */
+    public XmirWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads
+    ) {
+        this(input, output, speco, threads, "");
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     * @param options Options the outputs are produced with, kept in the manifest
+     */
+    public XmirWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads,
+        final String options
+    ) {
+        this(input, output, speco, threads, options, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param input Absolute path to the directory with input files
+     * @param output Absolute path to the directory with output files
+     * @param speco Origin speco
+     * @param threads Number of files transformed concurrently
+     * @param options Options the outputs are produced with, kept in the manifest
+     * @param metrics Metrics of the stages
+     */
+    XmirWalk(
+        final Path input,
+        final Path output,
+        final Speco speco,
+        final int threads,
+        final String options,
+        final Metrics metrics
     ) {
         this.input = input;
         this.output = output;
         this.speco = speco;
+        this.threads = threads;
+        this.options = options;
+        this.metrics = metrics;
     }
 
     @Override
     public void exec() throws IOException {
         Files.createDirectories(this.output);
-        for (final Path path : Files.newDirectoryStream(this.input)) {
-            Files.write(
-                this.output.resolve(path.getFileName()),
-                this.speco.transform(Walk.toXml(path)).toString().getBytes()
+        final Manifest manifest = new Manifest(this.output, this.options);
+        manifest.load();
+        manifest.prune(this.input);
+        try {
+            new Batch(this.input, this.threads).exec(
+                path -> {
+                    final String name = Batch.name(this.input, path);
+                    this.metrics.file(name);
+                    final String key = manifest.key(this.input, Collections.singleton(path));
+                    if (!manifest.fresh(name, key)) {
+                        manifest.write(
+                            name, key,
+                            file -> {
+                                final FileEvent event = new FileEvent();
+                                event.begin();
+                                final XML xml = this.speco.transform(
+                                    name,
+                                    this.metrics.measured("read", () -> Walk.toXml(path))
+                                );
+                                this.metrics.measured(
+                                    "write",
+                                    () -> {
+                                        Walk.toFile(xml, file);
+                                        return file;
+                                    }
+                                );
+                                event.commit(name, "xmir", Files.size(file));
+                            }
+                        );
+                    }
+                }
             );
+        } finally {
+            manifest.save();
         }
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.List;
+import javax.xml.namespace.NamespaceContext;
+import org.w3c.dom.Node;
+
+/**
+ * XML document, which shares its DOM node instead of copying it.
+ *
+ * <p>Unlike {@link XMLDocument}, method {@link #node()} returns the node itself,
+ * so the document is not cloned each time it is passed to the next stylesheet
+ * or serialized. The node must not be modified by the clients.</p>
+ *
+ * @since 0.0.4
+ */
+final class XmlNode implements XML {
+
+    /**
+     * DOM node.
+     */
+    private final Node dom;
+
+    /**
+     * Ctor.
+     *
+     * @param dom DOM node
+     */
+    XmlNode(final Node dom) {
+        this.dom = dom;
+    }
+
+    @Override
+    public List<String> xpath(final String query) {
+        return new XMLDocument(this.dom).xpath(query);
+    }
+
+    @Override
+    public List<XML> nodes(final String query) {
+        return new XMLDocument(this.dom).nodes(query);
+    }
+
+    @Override
+    public XML registerNs(final String prefix, final Object uri) {
+        return new XMLDocument(this.dom).registerNs(prefix, uri);
+    }
+
+    @Override
+    public XML merge(final NamespaceContext context) {
+        return new XMLDocument(this.dom).merge(context);
+    }
+
+    @Override
+    public Node node() {
+        return this.dom;
+    }
+
+    @Override
+    public String toString() {
+        return new XMLDocument(this.dom).toString();
+    }
+}
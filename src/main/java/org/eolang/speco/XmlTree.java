@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.List;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.tree.tiny.TinyNodeImpl;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * XML document, which keeps the compact immutable tree built by a stylesheet.
+ *
+ * <p>The tree is passed to the next stylesheet as it is, without building
+ * DOM between them. DOM is built on demand, once, for the shifts in Java
+ * and for XPath queries. As {@link com.jcabi.xml.XMLDocument} does,
+ * {@link #node()} returns a copy of it, so a client, which modifies
+ * the node, doesn't change the document for the others.</p>
+ *
+ * @since 0.0.4
+ */
+final class XmlTree implements XML {
+
+    /**
+     * Root of the tree.
+     */
+    private final NodeInfo tree;
+
+    /**
+     * DOM, built from the tree on demand.
+     */
+    private volatile Node dom;
+
+    /**
+     * Ctor.
+     *
+     * @param tree Root of the tree
+     */
+    XmlTree(final NodeInfo tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * Source to read the document from, without building DOM.
+     *
+     * @param xml Document
+     * @return The tree if the document keeps one, DOM otherwise
+     */
+    static Source source(final XML xml) {
+        final Source source;
+        if (xml instanceof XmlTree) {
+            source = ((XmlTree) xml).tree;
+        } else {
+            source = new DOMSource(xml.node());
+        }
+        return source;
+    }
+
+    /**
+     * Number of nodes of the document, except attributes.
+     *
+     * @param xml Document
+     * @return Number of nodes or -1 if the document doesn't keep a tree
+     */
+    static long size(final XML xml) {
+        final long size;
+        if (xml instanceof XmlTree && ((XmlTree) xml).tree instanceof TinyNodeImpl) {
+            size = ((TinyNodeImpl) ((XmlTree) xml).tree).getTree().getNumberOfNodes();
+        } else {
+            size = -1L;
+        }
+        return size;
+    }
+
+    /**
+     * Builds new DOM from the tree, which the client may modify.
+     *
+     * @return Document
+     */
+    Document document() {
+        final DOMResult result = new DOMResult();
+        try {
+            Stylesheets.identity().transform(this.tree, result);
+        } catch (final TransformerException ex) {
+            throw new IllegalStateException("Failed to build DOM from the tree", ex);
+        }
+        return (Document) result.getNode();
+    }
+
+    @Override
+    public List<String> xpath(final String query) {
+        return new XMLDocument(this.cached()).xpath(query);
+    }
+
+    @Override
+    public List<XML> nodes(final String query) {
+        return new XMLDocument(this.cached()).nodes(query);
+    }
+
+    @Override
+    public XML registerNs(final String prefix, final Object uri) {
+        return new XMLDocument(this.cached()).registerNs(prefix, uri);
+    }
+
+    @Override
+    public XML merge(final NamespaceContext context) {
+        return new XMLDocument(this.cached()).merge(context);
+    }
+
+    @Override
+    public Node node() {
+        return this.cached().cloneNode(true);
+    }
+
+    @Override
+    public String toString() {
+        return new XMLDocument(this.cached()).toString();
+    }
+
+    /**
+     * DOM built from the tree once, which is only read, never given away.
+     *
+     * @return Document
+     */
+    private Node cached() {
+        if (this.dom == null) {
+            synchronized (this) {
+                if (this.dom == null) {
+                    this.dom = this.document();
+                }
+            }
+        }
+        return this.dom;
+    }
+}
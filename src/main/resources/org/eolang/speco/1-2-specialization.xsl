@@ -29,6 +29,9 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:key name="versions" match="/program/speco/version" use="@name"/>
+  <xsl:key name="objects" match="/program/objects/o" use="@name"/>
+  <xsl:variable name="current" select="substring-before(/program/speco/obj[1]/@fqn, '.')"/>
   <!--
     Iterates through the objects that need to be specialized.
   -->
@@ -37,7 +40,7 @@ SOFTWARE.
     <xsl:variable name="curname" select="substring-before($fqn, '.')"/>
     <xsl:variable name="curvar" select="substring-after($fqn, '.')"/>
     <xsl:choose>
-      <xsl:when test="count(/program/speco/version[@name = $curname]) = 0">
+      <xsl:when test="empty(key('versions', $curname))">
         <xsl:for-each select="inferred/obj">
           <xsl:call-template name="specialize">
             <xsl:with-param name="name" select="$curname"/>
@@ -48,7 +51,7 @@ SOFTWARE.
         </xsl:for-each>
       </xsl:when>
       <xsl:otherwise>
-        <xsl:for-each select="/program/speco/version[@name = $curname]">
+        <xsl:for-each select="key('versions', $curname)">
           <xsl:variable name="var" select="@var"/>
           <xsl:variable name="spec" select="@spec"/>
           <xsl:variable name="objname" select="o[1]/@name"/>
@@ -82,7 +85,7 @@ SOFTWARE.
       <xsl:attribute name="spec">
         <xsl:value-of select="$spec"/>
       </xsl:attribute>
-      <xsl:for-each select="/program/objects/o[@name=$name]">
+      <xsl:for-each select="key('objects', $name)">
         <xsl:call-template name="format">
           <xsl:with-param name="name" select="$objname"/>
           <xsl:with-param name="spec" select="$name"/>
@@ -108,7 +111,7 @@ SOFTWARE.
   </xsl:template>
   <xsl:template match="@*|node()">
     <xsl:copy>
-      <xsl:apply-templates select="@*|node() except version[@name=substring-before(/program/speco/obj[1]/@fqn, '.')]"/>
+      <xsl:apply-templates select="@*|node() except version[@name=$current]"/>
     </xsl:copy>
   </xsl:template>
 </xsl:stylesheet>
@@ -29,6 +29,7 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:key name="versions" match="/program/speco/version" use="@name"/>
   <!--
     Checks the appropriate specialized version in the lines with the application.
   -->
@@ -47,7 +48,7 @@ SOFTWARE.
           <xsl:value-of select="$name"/>
         </xsl:attribute>
       </xsl:if>
-      <xsl:for-each select="/program/speco/version[@name=$name and concat(@spec, '_')=$spec]/o">
+      <xsl:for-each select="key('versions', $name)[concat(@spec, '_')=$spec]/o">
         <xsl:attribute name="base">
           <xsl:value-of select="@name"/>
         </xsl:attribute>
@@ -28,6 +28,7 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:key name="versions" match="/program/speco/version" use="@name"/>
   <!--
     Iterates over <objects/> and adds with-* attributes
     for all specialized versions of current object.
@@ -37,7 +38,7 @@ SOFTWARE.
     <xsl:variable name="spec" select="@spec"/>
     <xsl:copy>
       <xsl:apply-templates select="@*|node()"/>
-      <xsl:for-each select="/program/speco/version[@name=$name or @name=$spec]/o">
+      <xsl:for-each select="(key('versions', $name) | key('versions', $spec))/o">
         <xsl:element name="o">
           <xsl:attribute name="abstract"/>
           <xsl:attribute name="name">
@@ -28,6 +28,7 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:key name="bases" match="o[@base]" use="for $o in ancestor-or-self::o return concat(generate-id($o), @base)"/>
   <!--
     Finds fence attributes and creates duplicates of them, which return a two-elements tuple
     with the object it returned before and the "parent" object.
@@ -35,7 +36,7 @@ SOFTWARE.
   <xsl:template match="/program/objects//o">
     <xsl:copy>
       <xsl:apply-templates select="@*|node()"/>
-      <xsl:for-each select="o[@abstract and .//@base=concat('.', ../o[@base='memory']/@name)]">
+      <xsl:for-each select="o[@abstract and key('bases', concat(generate-id(), '.', ../o[@base='memory']/@name))]">
         <xsl:copy>
           <xsl:attribute name="abstract"/>
           <xsl:attribute name="name">
@@ -28,6 +28,7 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:key name="fences" match="/program/objects//o" use="@fence"/>
   <!--
     Replaces fence attribute calls with duplicate calls via a first tuple element.
   -->
@@ -36,8 +37,8 @@ SOFTWARE.
     <xsl:variable name="name" select="@name"/>
     <xsl:copy>
       <xsl:choose>
-        <xsl:when test="/program/objects//o[not(../@spec) and @fence=$fence]">
-          <xsl:for-each select="/program/objects//o[not(../@spec) and @fence=$fence]">
+        <xsl:when test="key('fences', $fence)[not(../@spec)]">
+          <xsl:for-each select="key('fences', $fence)[not(../@spec)]">
             <xsl:attribute name="base">
               <xsl:value-of select="concat('.', @name)"/>
             </xsl:attribute>
@@ -53,7 +54,7 @@ SOFTWARE.
         </xsl:otherwise>
       </xsl:choose>
     </xsl:copy>
-    <xsl:for-each select="/program/objects//o[not(../@spec) and @fence=$fence]">
+    <xsl:for-each select="key('fences', $fence)[not(../@spec)]">
       <xsl:element name="o">
         <xsl:attribute name="base">
           <xsl:value-of select="'.at'"/>
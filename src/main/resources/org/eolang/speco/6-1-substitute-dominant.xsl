@@ -31,14 +31,25 @@ SOFTWARE.
   -->
   <xsl:output indent="yes" method="xml"/>
   <xsl:strip-space elements="*"/>
+  <xsl:mode use-accumulators="#all"/>
+  <!--
+    The last object with the fence_tuple attribute, which precedes the current node
+    and is not its ancestor, like (preceding::o[@fence_tuple])[last()], but without
+    scanning the preceding nodes each time. A tuple is taken when it ends, unless the
+    tuple taken before is nested in it and so starts later.
+  -->
+  <xsl:accumulator name="tuple" as="element()?" initial-value="()">
+    <xsl:accumulator-rule match="o[@fence_tuple]" phase="end" select="if (exists($value) and (some $a in $value/ancestor::o satisfies $a is .)) then $value else ."/>
+  </xsl:accumulator>
   <!--
     Iterated over objects with the fence_tuple attribute (marker from the previous transformation)
     and replaces the parent object with the second element of the tuple of the previous fence attribute.
     The first fence object is not replaced.
   -->
   <xsl:template match="/program/objects//o[@fence_tuple]">
+    <xsl:variable name="preceding" select="accumulator-before('tuple')"/>
     <xsl:choose>
-      <xsl:when test="preceding::o[@fence_tuple]">
+      <xsl:when test="$preceding">
         <xsl:element name="o">
           <xsl:attribute name="base">
             <xsl:value-of select="'.at'"/>
@@ -46,7 +57,7 @@ SOFTWARE.
           <xsl:attribute name="method"/>
           <xsl:element name="o">
             <xsl:attribute name="base">
-              <xsl:value-of select="(preceding::o[@fence_tuple])[last()]/@name"/>
+              <xsl:value-of select="$preceding/@name"/>
             </xsl:attribute>
           </xsl:element>
           <o base="int" data="bytes">00 00 00 00 00 00 00 01</o>
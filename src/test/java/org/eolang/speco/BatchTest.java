@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for concurrent processing of files.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class BatchTest {
+
+    /**
+     * Number of files in the directory.
+     */
+    private static final int FILES = 16;
+
+    @Test
+    void processesAllFiles(@TempDir final Path temp) throws IOException {
+        BatchTest.fill(temp);
+        final Set<String> done = new ConcurrentSkipListSet<>();
+        new Batch(temp, 4).exec(path -> done.add(path.getFileName().toString()));
+        MatcherAssert.assertThat(
+            "Not all files were processed",
+            done,
+            Matchers.hasSize(BatchTest.FILES)
+        );
+    }
+
+    @Test
+    void processesNestedFiles(@TempDir final Path temp) throws IOException {
+        final Path nested = temp.resolve("a").resolve("b");
+        Files.createDirectories(nested);
+        BatchTest.fill(nested);
+        Files.writeString(temp.resolve("top.txt"), "");
+        final Set<String> done = new ConcurrentSkipListSet<>();
+        new Batch(temp, 2).exec(path -> done.add(Batch.name(temp, path)));
+        MatcherAssert.assertThat(
+            "Nested files are not processed",
+            done,
+            Matchers.hasItems("top.txt", "a/b/0.txt", "a/b/15.txt")
+        );
+    }
+
+    @Test
+    void reportsFailedFile(@TempDir final Path temp) throws IOException {
+        BatchTest.fill(temp);
+        final Set<String> done = new ConcurrentSkipListSet<>();
+        final IOException error = Assertions.assertThrows(
+            IOException.class,
+            () -> new Batch(temp, 4).exec(
+                path -> {
+                    if ("3.txt".equals(path.getFileName().toString())) {
+                        throw new IllegalStateException("broken");
+                    }
+                    done.add(path.getFileName().toString());
+                }
+            )
+        );
+        MatcherAssert.assertThat(
+            "Failed file is not reported",
+            error.getMessage(),
+            Matchers.containsString("[3.txt]")
+        );
+        MatcherAssert.assertThat(
+            "Failure of one file stopped the others",
+            done,
+            Matchers.hasSize(BatchTest.FILES - 1)
+        );
+    }
+
+    /**
+     * Creates files in the directory.
+     *
+     * @param dir Directory
+     * @throws IOException If fails
+     */
+    private static void fill(final Path dir) throws IOException {
+        for (int idx = 0; idx < BatchTest.FILES; ++idx) {
+            Files.writeString(dir.resolve(String.format("%d.txt", idx)), "");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.yegor256.xsline.StLambda;
+import com.yegor256.xsline.Xsline;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests for cancellation of specialization of the files over the budget.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class BudgetSpecoTest {
+
+    /**
+     * Speco, which only wraps the method calls, as the cancelled one does.
+     */
+    private static final Speco WRAPPED = xml -> new Xsline(
+        new StGuarded(StGuarded.METHODS, new StCompiled(Stylesheets.WRAP))
+    ).pass(xml);
+
+    @Test
+    void keepsProgramOverIterations(@TempDir final Path temp) throws IOException {
+        final Budget budget = new Budget(0L, 1, 0);
+        final String program = BudgetSpecoTest.counters();
+        MatcherAssert.assertThat(
+            "The program over the iterations is specialized",
+            BudgetSpecoTest.specialized(
+                temp, program,
+                new BudgetSpeco(new DefaultSpeco(new StSpecialization(budget)), budget)
+            ),
+            Matchers.equalTo(
+                BudgetSpecoTest.specialized(temp, program, BudgetSpecoTest.WRAPPED)
+            )
+        );
+    }
+
+    @Test
+    void keepsProgramOverVersions(@TempDir final Path temp) throws IOException {
+        final Budget budget = new Budget(0L, 0, 2);
+        MatcherAssert.assertThat(
+            "The program over the versions is specialized by the stylesheet",
+            BudgetSpecoTest.specialized(
+                temp,
+                new BudgetSpeco(
+                    new DefaultSpeco(DefaultSpeco.reference(Metrics.NONE, budget)), budget
+                )
+            ),
+            Matchers.equalTo(BudgetSpecoTest.specialized(temp, BudgetSpecoTest.WRAPPED))
+        );
+    }
+
+    @Test
+    void sharesBudgetBetweenParts(@TempDir final Path temp) throws IOException {
+        final Budget budget = new Budget(0L, 0, 4);
+        final String program = BudgetSpecoTest.counters();
+        MatcherAssert.assertThat(
+            "The parts of the program over the versions are specialized",
+            BudgetSpecoTest.specialized(
+                temp, program,
+                new BudgetSpeco(
+                    new SplitSpeco(new DefaultSpeco(new StSpecialization(budget)), 2), budget
+                )
+            ),
+            Matchers.equalTo(
+                BudgetSpecoTest.specialized(temp, program, BudgetSpecoTest.WRAPPED)
+            )
+        );
+    }
+
+    @Test
+    void keepsProgramOverTimeBeforeNextStage(@TempDir final Path temp) throws IOException {
+        final Budget budget = new Budget(10L, 0, 0);
+        MatcherAssert.assertThat(
+            "The program over the time is specialized by the next stages",
+            BudgetSpecoTest.specialized(
+                temp,
+                new BudgetSpeco(
+                    new DefaultSpeco(
+                        new StLambda(
+                            (position, xml) -> {
+                                try {
+                                    Thread.sleep(50L);
+                                } catch (final InterruptedException ex) {
+                                    Thread.currentThread().interrupt();
+                                    throw new IllegalStateException(ex);
+                                }
+                                return xml;
+                            }
+                        )
+                    ),
+                    budget
+                )
+            ),
+            Matchers.equalTo(BudgetSpecoTest.specialized(temp, BudgetSpecoTest.WRAPPED))
+        );
+    }
+
+    @Test
+    void specializesProgramWithinBudget(@TempDir final Path temp) throws IOException {
+        final Budget budget = new Budget(60_000L, 100, 100);
+        MatcherAssert.assertThat(
+            "The program within the budget is specialized differently",
+            BudgetSpecoTest.specialized(
+                temp, new BudgetSpeco(new DefaultSpeco(new StSpecialization(budget)), budget)
+            ),
+            Matchers.equalTo(BudgetSpecoTest.specialized(temp, new DefaultSpeco()))
+        );
+    }
+
+    /**
+     * Specializes the counter.
+     *
+     * @param temp Temporary directory
+     * @param speco Speco
+     * @return EO of the output
+     * @throws IOException If fails
+     */
+    private static String specialized(final Path temp, final Speco speco) throws IOException {
+        return BudgetSpecoTest.specialized(temp, BudgetSpecoTest.counter(), speco);
+    }
+
+    /**
+     * Specializes the program.
+     *
+     * @param temp Temporary directory
+     * @param program Source code
+     * @param speco Speco
+     * @return EO of the output
+     * @throws IOException If fails
+     */
+    private static String specialized(final Path temp, final String program,
+        final Speco speco) throws IOException {
+        final Path input = temp.resolve("input");
+        Files.createDirectories(input);
+        Files.writeString(input.resolve("app.eo"), program);
+        final Path output = Files.createTempDirectory(temp, "output");
+        new EoWalk(input, output, speco).exec();
+        return Files.readString(output.resolve("app.eo"));
+    }
+
+    /**
+     * Program with two independent counters, which are specialized
+     * in two iterations or in two parts.
+     *
+     * @return Source code
+     * @throws IOException If fails to read
+     */
+    private static String counters() throws IOException {
+        final String counter = BudgetSpecoTest.counter();
+        return String.join(
+            "\n",
+            counter,
+            counter.replace("counter", "stepper").replace("next", "step")
+                .replace("> k", "> m").replace(".k", ".m").replace("] > app", "] > main")
+        );
+    }
+
+    /**
+     * Program with the counter.
+     *
+     * @return Source code
+     * @throws IOException If fails to read
+     */
+    private static String counter() throws IOException {
+        final Map<String, Object> script;
+        try (InputStream yaml = BudgetSpecoTest.class.getResourceAsStream(
+            "/org/eolang/speco/packs/examples/counter.yaml"
+        )) {
+            script = new Yaml().load(yaml);
+        }
+        return script.get("before").toString();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests for AOI with the results kept on disk.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class CachedAoiTest {
+
+    @Test
+    void infersSameTypesFromEntries(@TempDir final Path temp) throws IOException {
+        final String source = CachedAoiTest.counter();
+        final Map<String, Document> expected = CachedAoiTest.programs(source);
+        new Aoi(expected).exec();
+        new CachedAoi(CachedAoiTest.programs(source), temp).exec();
+        final Map<String, Document> cached = CachedAoiTest.programs(source);
+        MatcherAssert.assertThat(
+            "AOI is run again for the same programs",
+            new CachedAoi(cached, temp).exec(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "Types from the entries differ",
+            CachedAoiTest.aoi(cached),
+            Matchers.equalTo(CachedAoiTest.aoi(expected))
+        );
+    }
+
+    @Test
+    void keepsEntriesWhenOnlyDataChanges(@TempDir final Path temp) throws IOException {
+        final String source = CachedAoiTest.counter();
+        new CachedAoi(CachedAoiTest.programs(source), temp).exec();
+        MatcherAssert.assertThat(
+            "AOI is run again when only data changes",
+            new CachedAoi(
+                CachedAoiTest.programs(source.replace("First", "Primary")), temp
+            ).exec(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void runsAgainWhenObjectsChange(@TempDir final Path temp) throws IOException {
+        final String source = CachedAoiTest.counter();
+        new CachedAoi(CachedAoiTest.programs(source), temp).exec();
+        MatcherAssert.assertThat(
+            "AOI is not run when objects change",
+            new CachedAoi(
+                CachedAoiTest.programs(source.replace("next", "step")), temp
+            ).exec(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void runsAgainOnlyForChangedProgram(@TempDir final Path temp) throws IOException {
+        final String other = String.join(
+            "\n", "[x] > other", "  x.plus 1 > y", "  x.minus 1 > @", ""
+        );
+        final Map<String, Document> programs = CachedAoiTest.programs(CachedAoiTest.counter());
+        programs.put("other.eo", EoWalk.parse("other.eo", other));
+        new CachedAoi(programs, temp).exec();
+        final Set<Path> before = CachedAoiTest.entries(temp);
+        final Map<String, Document> changed = CachedAoiTest.programs(CachedAoiTest.counter());
+        changed.put("other.eo", EoWalk.parse("other.eo", other.replace("x.plus", "x.times")));
+        final Map<String, Document> expected = CachedAoiTest.programs(CachedAoiTest.counter());
+        expected.put("other.eo", EoWalk.parse("other.eo", other.replace("x.plus", "x.times")));
+        new Aoi(expected).exec();
+        new CachedAoi(changed, temp).exec();
+        final Set<Path> after = CachedAoiTest.entries(temp);
+        after.retainAll(before);
+        MatcherAssert.assertThat(
+            "AOI is run again for the program, which is not changed",
+            after,
+            Matchers.hasSize(1)
+        );
+        MatcherAssert.assertThat(
+            "Types from the entries and from AOI differ",
+            CachedAoiTest.aoi(changed),
+            Matchers.equalTo(CachedAoiTest.aoi(expected))
+        );
+    }
+
+    @Test
+    void specializesAgainOnlyChangedProgram(@TempDir final Path temp) throws IOException {
+        final String other = String.join(
+            "\n", "[x] > other", "  x.plus 1 > y", "  x.minus 1 > @", ""
+        );
+        final Path input = temp.resolve("in");
+        Files.createDirectories(input);
+        Files.writeString(input.resolve("app.eo"), CachedAoiTest.counter());
+        Files.writeString(input.resolve("other.eo"), other);
+        final Set<String> specialized = ConcurrentHashMap.newKeySet();
+        final Speco speco = xml -> {
+            specialized.addAll(xml.xpath("/program/objects/o/@name"));
+            return new DefaultSpeco().transform(xml);
+        };
+        new EoWalk(input, temp.resolve("out"), speco).exec();
+        specialized.clear();
+        Files.writeString(input.resolve("other.eo"), other.replace("x.plus", "x.times"));
+        new EoWalk(input, temp.resolve("out"), speco).exec();
+        MatcherAssert.assertThat(
+            "Program, which is not changed, is specialized again",
+            specialized,
+            Matchers.contains("other")
+        );
+    }
+
+    /**
+     * Entries of AOI in the target directory.
+     *
+     * @param target Target directory
+     * @return Paths of the entries
+     * @throws IOException If fails to list
+     */
+    private static Set<Path> entries(final Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target.resolve(CachedAoi.NAME))) {
+            return files.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Source code of the counter example.
+     *
+     * @return Source code
+     * @throws IOException If fails to read
+     */
+    private static String counter() throws IOException {
+        try (InputStream yaml = CachedAoiTest.class.getResourceAsStream(
+            "/org/eolang/speco/packs/examples/counter.yaml"
+        )) {
+            return new Yaml().<Map<String, Object>>load(yaml).get("before").toString();
+        }
+    }
+
+    /**
+     * Programs parsed from the source code.
+     *
+     * @param source Source code
+     * @return Programs by their names
+     * @throws IOException If fails to parse
+     */
+    private static Map<String, Document> programs(final String source) throws IOException {
+        return new HashMap<>(
+            Collections.singletonMap("app.eo", EoWalk.parse("app.eo", source))
+        );
+    }
+
+    /**
+     * Sections of AOI of all the programs.
+     *
+     * @param programs Programs by their names
+     * @return Section as text
+     */
+    private static String aoi(final Map<String, Document> programs) {
+        final StringBuilder aoi = new StringBuilder();
+        for (final Document doc : new TreeMap<>(programs).values()) {
+            aoi.append(new XMLDocument(doc).nodes("/program/aoi").get(0).toString());
+        }
+        return aoi.toString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for daemon mode.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class DaemonTest {
+
+    @Test
+    void servesRequestsOneByOne(@TempDir final Path temp) throws IOException {
+        final String source = Path.of(
+            "src", "test", "resources", "org", "eolang", "speco", "xmir", "simple", "in"
+        ).toAbsolutePath().toString();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Daemon.serve(
+            new ByteArrayInputStream(
+                String.join(
+                    "\n",
+                    String.join("\t", temp.toString(), "--source=" + source, "--target=one"),
+                    String.join("\t", temp.toString(), "--source=" + source, "--target=two"),
+                    String.join("\t", temp.toString(), "--daemon"),
+                    "",
+                    String.join("\t", temp.toString(), "--source=" + source, "--target=three")
+                ).getBytes(StandardCharsets.UTF_8)
+            ),
+            output
+        );
+        MatcherAssert.assertThat(
+            "Requests are not served",
+            output.toString(StandardCharsets.UTF_8).split("\\R"),
+            Matchers.arrayContaining("0", "0", "2")
+        );
+        MatcherAssert.assertThat(
+            "Relative target is not resolved against working directory",
+            Files.readString(temp.resolve("one").resolve("pets.xmir")),
+            Matchers.equalTo(Files.readString(temp.resolve("two").resolve("pets.xmir")))
+        );
+    }
+
+    @Test
+    void servesOnlyClientsWithToken(@TempDir final Path temp) throws Exception {
+        final String source = Path.of(
+            "src", "test", "resources", "org", "eolang", "speco", "xmir", "simple", "in"
+        ).toAbsolutePath().toString();
+        final int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        final Path token = temp.resolve("token");
+        final Thread thread = new Thread(
+            () -> {
+                try {
+                    new Daemon(port, token).exec();
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+        thread.setDaemon(true);
+        thread.start();
+        while (!Files.exists(token) || Files.size(token) == 0L) {
+            Thread.sleep(10L);
+        }
+        final Path wrong = Files.writeString(temp.resolve("wrong"), "secret");
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Client(port, wrong).exec("--source=" + source, "--target=" + temp),
+            "Client without the token is served"
+        );
+        MatcherAssert.assertThat(
+            "Client with the token is not served",
+            new Client(port, token).exec(
+                "--source=" + source, "--target=" + temp.resolve("out")
+            ),
+            Matchers.equalTo(0)
+        );
+    }
+}
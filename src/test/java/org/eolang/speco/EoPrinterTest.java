@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import org.eolang.jucs.ClasspathSource;
+import org.eolang.parser.XMIR;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.w3c.dom.Document;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests for the printer of XMIR as EO.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class EoPrinterTest {
+
+    @ParameterizedTest
+    @ClasspathSource(value = "org/eolang/speco/packs", glob = "**.yaml")
+    void printsSameAsXmir(final String pack) throws IOException {
+        final Map<String, Object> script = new Yaml().load(pack);
+        for (final String key : new String[] {"before", "after"}) {
+            final XML xml = new XmlNode(EoWalk.parse(key, script.get(key).toString()));
+            MatcherAssert.assertThat(
+                String.format("The program '%s' is printed differently", key),
+                EoPrinterTest.printed(xml),
+                Matchers.equalTo(new XMIR(xml).toEO())
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @ClasspathSource(value = "org/eolang/speco/packs", glob = "**.yaml")
+    void printsSpecializedSameAsXmir(final String pack) throws IOException {
+        final Document program = EoWalk.parse(
+            "app", ((Map<?, ?>) new Yaml().load(pack)).get("before").toString()
+        );
+        new Aoi(Collections.singletonMap("app", program)).exec();
+        final XML xml = new DefaultSpeco().transform(new XmlNode(program));
+        MatcherAssert.assertThat(
+            "The specialized program is printed differently",
+            EoPrinterTest.printed(xml),
+            Matchers.equalTo(new XMIR(xml).toEO())
+        );
+    }
+
+    @Test
+    void printsLiterals() throws IOException {
+        final XML xml = new XmlNode(
+            EoWalk.parse(
+                "literals",
+                String.join(
+                    "\n",
+                    "# The license.",
+                    "",
+                    "+package org.eolang.custom",
+                    "+alias org.eolang.io.stdout",
+                    "",
+                    "[args...] > literals",
+                    "  * > items",
+                    "    \"text\\n\\t\\\"quoted\\\"\"",
+                    "    42",
+                    "    -7",
+                    "    1.5",
+                    "    TRUE",
+                    "    FALSE",
+                    "    01-FF",
+                    "    00-",
+                    "    \"\"",
+                    "    \"\"\"",
+                    "    multi",
+                    "    \"\"\"",
+                    "  [x y] > pair!",
+                    "    x.plus y > @",
+                    "  stdout > out",
+                    "    items.at 0 > first",
+                    "  5:a > five"
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "The literals are printed differently",
+            EoPrinterTest.printed(xml),
+            Matchers.equalTo(new XMIR(xml).toEO())
+        );
+    }
+
+    /**
+     * Prints the program.
+     *
+     * @param xml Program
+     * @return EO
+     * @throws IOException If fails
+     */
+    private static String printed(final XML xml) throws IOException {
+        final StringBuilder out = new StringBuilder(0);
+        new EoPrinter(xml).print(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+/**
+ * Tests for specialization of the changed components only.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class IncrementalSpecoTest {
+
+    @Test
+    void specializesSameAsSplit(@TempDir final Path temp) throws IOException {
+        final XML program = IncrementalSpecoTest.program(false);
+        MatcherAssert.assertThat(
+            "Components are specialized differently",
+            new IncrementalSpeco(new DefaultSpeco(), temp, "").transform(program).toString(),
+            Matchers.equalTo(
+                new SplitSpeco(new DefaultSpeco(), 1).transform(program).toString()
+            )
+        );
+    }
+
+    @Test
+    void splicesUnchangedComponents(@TempDir final Path temp) throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final Speco speco = new IncrementalSpeco(
+            xml -> {
+                calls.incrementAndGet();
+                return new DefaultSpeco().transform(xml);
+            },
+            temp,
+            ""
+        );
+        speco.transform(IncrementalSpecoTest.program(false));
+        calls.set(0);
+        final XML changed = IncrementalSpecoTest.program(true);
+        final String result = speco.transform(changed).toString();
+        MatcherAssert.assertThat(
+            "The unchanged component is specialized again",
+            calls.get(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            "The spliced component differs, with its lines shifted",
+            result,
+            Matchers.equalTo(
+                new SplitSpeco(new DefaultSpeco(), 1).transform(changed).toString()
+            )
+        );
+        try (Stream<Path> files = Files.walk(temp.resolve(IncrementalSpeco.NAME))) {
+            MatcherAssert.assertThat(
+                "The entries of the previous components are kept",
+                files.filter(Files::isRegularFile).count(),
+                Matchers.equalTo(2L)
+            );
+        }
+    }
+
+    @Test
+    void keepsEntriesOfEachFile(@TempDir final Path temp) throws IOException {
+        final Speco speco = new IncrementalSpeco(new DefaultSpeco(), temp, "");
+        final XML program = IncrementalSpecoTest.program(false);
+        speco.transform("a.eo", program);
+        speco.transform("b.eo", program);
+        try (Stream<Path> dirs = Files.list(temp.resolve(IncrementalSpeco.NAME))) {
+            MatcherAssert.assertThat(
+                "The entries of the files are not kept apart",
+                dirs.count(),
+                Matchers.equalTo(2L)
+            );
+        }
+    }
+
+    @Test
+    void specializesAgainWithOtherOptions(@TempDir final Path temp) throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final Speco counted = xml -> {
+            calls.incrementAndGet();
+            return new DefaultSpeco().transform(xml);
+        };
+        final XML program = IncrementalSpecoTest.program(false);
+        new IncrementalSpeco(counted, temp, "--native=false").transform(program);
+        new IncrementalSpeco(counted, temp, "--native=true").transform(program);
+        MatcherAssert.assertThat(
+            "The components are not specialized again with other options",
+            calls.get(),
+            Matchers.equalTo(4)
+        );
+    }
+
+    /**
+     * Program with two independent groups of objects, with the types
+     * inferred by AOI.
+     *
+     * @param changed Whether the first group is changed and one line longer
+     * @return Program
+     * @throws IOException If fails
+     */
+    private static XML program(final boolean changed) throws IOException {
+        String first = String.join(
+            "\n",
+            "[x] > left",
+            "  x.foo > @",
+            "[] > lfoo",
+            "  [] > foo",
+            "    1 > @",
+            "[] > lapp",
+            "  left lfoo > @",
+            ""
+        );
+        if (changed) {
+            first = first.replace("    1 > @\n", "    1 > @\n  TRUE > flag\n");
+        }
+        final Document doc = EoWalk.parse(
+            "app",
+            String.join(
+                "\n",
+                first,
+                "[y] > right",
+                "  y.bar > @",
+                "[] > rbar",
+                "  [] > bar",
+                "    2 > @",
+                "[] > rapp",
+                "  right rbar > @"
+            )
+        );
+        new Aoi(Collections.singletonMap("app", doc)).exec();
+        return new XmlNode(doc);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the manifest of the target directory.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class ManifestTest {
+
+    @Test
+    void keepsOutputOfSameInput(@TempDir final Path temp) throws IOException {
+        final Path input = Files.writeString(temp.resolve("a.xmir"), "<a/>");
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        final Manifest first = new Manifest(target, "");
+        final String key = first.key(temp, Collections.singleton(input));
+        first.write("a.xmir", key, file -> Files.writeString(file, "<b/>"));
+        first.save();
+        final Manifest second = new Manifest(target, "");
+        second.load();
+        MatcherAssert.assertThat(
+            "Output of unchanged input is not fresh",
+            second.fresh("a.xmir", second.key(temp, Collections.singleton(input))),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void rebuildsOnChangedInputOrOptions(@TempDir final Path temp) throws IOException {
+        final Path input = Files.writeString(temp.resolve("a.xmir"), "<a/>");
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        final Manifest first = new Manifest(target, "--eo=false");
+        first.write(
+            "a.xmir", first.key(temp, Collections.singleton(input)),
+            file -> Files.writeString(file, "<b/>")
+        );
+        first.save();
+        final Manifest options = new Manifest(target, "--eo=true");
+        options.load();
+        MatcherAssert.assertThat(
+            "Output is fresh for other options",
+            options.fresh("a.xmir", options.key(temp, Collections.singleton(input))),
+            Matchers.is(false)
+        );
+        Files.writeString(input, "<c/>");
+        final Manifest changed = new Manifest(target, "--eo=false");
+        changed.load();
+        MatcherAssert.assertThat(
+            "Output is fresh for changed input",
+            changed.fresh("a.xmir", changed.key(temp, Collections.singleton(input))),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void rebuildsModifiedOutput(@TempDir final Path temp) throws IOException {
+        final Path input = Files.writeString(temp.resolve("a.xmir"), "<a/>");
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        final Manifest first = new Manifest(target, "");
+        final String key = first.key(temp, Collections.singleton(input));
+        first.write("a.xmir", key, file -> Files.writeString(file, "<b/>"));
+        first.save();
+        Files.writeString(target.resolve("a.xmir"), "<d/>");
+        final Manifest second = new Manifest(target, "");
+        second.load();
+        MatcherAssert.assertThat(
+            "Modified output is fresh",
+            second.fresh("a.xmir", key),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void deletesOutputsOfDeletedSources(@TempDir final Path temp) throws IOException {
+        final Path source = Files.createDirectory(temp.resolve("source"));
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        final Manifest first = new Manifest(target, "");
+        for (final String name : new String[] {"a.xmir", "b.xmir", "c.xmir"}) {
+            final Path input = Files.writeString(source.resolve(name), "<a/>");
+            first.write(
+                name, first.key(source, Collections.singleton(input)),
+                file -> Files.writeString(file, "<b/>")
+            );
+        }
+        first.save();
+        Files.delete(source.resolve("b.xmir"));
+        Files.delete(source.resolve("c.xmir"));
+        Files.writeString(target.resolve("c.xmir"), "<d/>");
+        final Manifest second = new Manifest(target, "");
+        second.load();
+        second.prune(source);
+        MatcherAssert.assertThat(
+            "Outputs of deleted sources are kept, or modified ones are deleted",
+            Arrays.asList(
+                Files.exists(target.resolve("a.xmir")),
+                Files.exists(target.resolve("b.xmir")),
+                Files.exists(target.resolve("c.xmir"))
+            ),
+            Matchers.contains(true, false, true)
+        );
+    }
+
+    @Test
+    void doesNotRewriteSameOutput(@TempDir final Path temp) throws IOException {
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        final Path output = Files.writeString(target.resolve("a.xmir"), "<b/>");
+        final FileTime time = FileTime.fromMillis(0L);
+        Files.setLastModifiedTime(output, time);
+        new Manifest(target, "").write(
+            "a.xmir", "key", file -> Files.writeString(file, "<b/>")
+        );
+        MatcherAssert.assertThat(
+            "Output with the same content is rewritten",
+            Files.getLastModifiedTime(output),
+            Matchers.equalTo(time)
+        );
+        MatcherAssert.assertThat(
+            "Temporary files are left in the target",
+            Files.list(target).count(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    @Test
+    void writesOutputWithDefaultPermissions(@TempDir final Path temp) throws IOException {
+        final Path target = Files.createDirectory(temp.resolve("target"));
+        Assumptions.assumeTrue(
+            Files.getFileAttributeView(target, PosixFileAttributeView.class) != null
+        );
+        final Path plain = Files.writeString(target.resolve("plain.xmir"), "<a/>");
+        new Manifest(target, "").write(
+            "a.xmir", "key", file -> Files.writeString(file, "<b/>")
+        );
+        MatcherAssert.assertThat(
+            "Output permissions differ from the default ones",
+            Files.getPosixFilePermissions(target.resolve("a.xmir")),
+            Matchers.equalTo(Files.getPosixFilePermissions(plain))
+        );
+    }
+
+    @Test
+    void keysInputsByRelativePaths(@TempDir final Path temp) throws IOException {
+        final Path first = Files.writeString(
+            Files.createDirectories(temp.resolve("x")).resolve("a.xmir"), "<a/>"
+        );
+        final Path second = Files.writeString(
+            Files.createDirectories(temp.resolve("y")).resolve("a.xmir"), "<a/>"
+        );
+        final Manifest manifest = new Manifest(temp.resolve("target"), "");
+        MatcherAssert.assertThat(
+            "Same files in different directories have the same key",
+            manifest.key(temp, Collections.singleton(first)),
+            Matchers.not(Matchers.equalTo(manifest.key(temp, Collections.singleton(second))))
+        );
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for metrics of the stages.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class MetricsTest {
+
+    @Test
+    void reportsStagesOfFiles(@TempDir final Path temp) throws IOException {
+        final Metrics metrics = new Metrics();
+        new XmirWalk(
+            Path.of("src", "test", "resources", "org", "eolang", "speco", "xmir", "simple", "in"),
+            temp.resolve("out"),
+            new ClearXmirSpeco(
+                new DefaultSpeco(DefaultSpeco.reference(metrics), metrics),
+                metrics
+            ),
+            2,
+            "",
+            metrics
+        ).exec();
+        final Path report = temp.resolve("metrics.json");
+        metrics.save(report);
+        MatcherAssert.assertThat(
+            "Stages are not reported",
+            Files.readString(report),
+            Matchers.allOf(
+                Matchers.containsString("\"files\": {\n    \"booms.xmir\": {"),
+                Matchers.containsString("\"read\": {\"calls\": 1,"),
+                Matchers.containsString("\"7-1-substitute-returned\": {\"calls\": 1,"),
+                Matchers.containsString("\"clear\": {\"calls\": 1,"),
+                Matchers.matchesPattern(
+                    "(?s).*\"1-2-specialization\": \\{\"calls\": 1, \"iterations\": [1-9].*"
+                )
+            )
+        );
+    }
+
+    @Test
+    void measuresNothingWhenDisabled() {
+        MatcherAssert.assertThat(
+            "Shift is measured by disabled metrics",
+            Metrics.NONE.measured(new StCompiled(Stylesheets.CLEAR)),
+            Matchers.not(Matchers.instanceOf(StMeasured.class))
+        );
+    }
+}
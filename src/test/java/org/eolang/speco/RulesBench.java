@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.yegor256.xsline.Shift;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of each rule stylesheet on synthetic programs of growing size,
+ * made by {@link Workload}, to see that the time grows linearly.
+ *
+ * <p>Run it with {@code mvn -Pjmh test-compile exec:exec
+ * -Djmh.args="RulesBench -p objects=1000,10000"}.</p>
+ *
+ * @since 0.0.4
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RulesBench {
+
+    /**
+     * Stages of {@link DefaultSpeco} in the order they are applied.
+     */
+    private static final List<String> STAGES = Arrays.asList(
+        Stylesheets.WRAP,
+        "/org/eolang/speco/1-1-coping.xsl",
+        "1-2-specialization",
+        "/org/eolang/speco/1-3-extension.xsl",
+        "/org/eolang/speco/2-1-substitute-applications.xsl",
+        "/org/eolang/speco/3-1-add-with.xsl",
+        "/org/eolang/speco/4-1-fence-tuples.xsl",
+        "/org/eolang/speco/5-1-substitute-fence.xsl",
+        "/org/eolang/speco/6-1-substitute-dominant.xsl",
+        "/org/eolang/speco/7-1-substitute-returned.xsl"
+    );
+
+    /**
+     * Number of objects to specialize.
+     */
+    @Param({"100", "1000"})
+    public int objects;
+
+    /**
+     * Rule stylesheet to apply.
+     */
+    @Param({
+        "2-1-substitute-applications",
+        "3-1-add-with",
+        "4-1-fence-tuples",
+        "5-1-substitute-fence",
+        "6-1-substitute-dominant",
+        "7-1-substitute-returned",
+    })
+    public String rule;
+
+    /**
+     * Stylesheet of the rule.
+     */
+    private Shift shift;
+
+    /**
+     * Program, as the rule takes it.
+     */
+    private XML doc;
+
+    /**
+     * Generates the program and applies the stages before the rule.
+     *
+     * @throws IOException If fails to parse it
+     */
+    @Setup
+    public void setup() throws IOException {
+        XML xml = new XmlNode(new Workload(this.objects, 1, 2, 1, 1).xmir());
+        for (final String stage : RulesBench.STAGES) {
+            final Shift next;
+            if (stage.startsWith("/")) {
+                next = new StCompiled(stage);
+            } else {
+                next = new StSpecialization();
+            }
+            if (next.uid().equals(this.rule)) {
+                this.shift = next;
+                break;
+            }
+            xml = next.apply(0, xml);
+        }
+        this.doc = xml;
+    }
+
+    /**
+     * Applies the rule.
+     *
+     * @return Transformed program
+     */
+    @Benchmark
+    public XML transform() {
+        return this.shift.apply(0, this.doc);
+    }
+}
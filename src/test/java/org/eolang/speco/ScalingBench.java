@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Node;
+
+/**
+ * Benchmark of the specialization of synthetic programs of growing size,
+ * made by {@link Workload}.
+ *
+ * <p>Run it with {@code mvn -Pjmh test-compile exec:exec
+ * -Djmh.args="ScalingBench -p objects=10,100,1000,10000,100000"}.</p>
+ *
+ * @since 0.0.4
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBench {
+
+    /**
+     * Number of objects to specialize.
+     */
+    @Param({"10", "100", "1000"})
+    public int objects;
+
+    /**
+     * Number of free attributes of each object.
+     */
+    @Param("2")
+    public int attributes;
+
+    /**
+     * Number of types inferred for each free attribute.
+     */
+    @Param("2")
+    public int types;
+
+    /**
+     * Number of fence attributes of each object.
+     */
+    @Param("1")
+    public int fences;
+
+    /**
+     * Depth of nesting of the bodies.
+     */
+    @Param("2")
+    public int depth;
+
+    /**
+     * Speco: "default" or "native".
+     */
+    @Param({"default", "native"})
+    public String engine;
+
+    /**
+     * Speco to apply.
+     */
+    private Speco speco;
+
+    /**
+     * Program to specialize.
+     */
+    private Node doc;
+
+    /**
+     * Generates the program.
+     *
+     * @throws IOException If fails to parse it
+     */
+    @Setup
+    public void setup() throws IOException {
+        if ("native".equals(this.engine)) {
+            this.speco = new NativeSpeco();
+        } else {
+            this.speco = new DefaultSpeco();
+        }
+        this.doc = new Workload(
+            this.objects, this.attributes, this.types, this.fences, this.depth
+        ).xmir();
+    }
+
+    /**
+     * Specializes the program.
+     *
+     * @return Specialized program
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public XML transform() throws IOException {
+        return this.speco.transform(new XmlNode(this.doc));
+    }
+}
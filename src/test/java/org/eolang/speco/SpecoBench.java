@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Benchmark of the whole specialization of the documents from {@code xmir/simple/in},
+ * as is and with their objects copied many times.
+ *
+ * <p>Run it with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=SpecoBench}.</p>
+ *
+ * @since 0.0.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecoBench {
+
+    /**
+     * Name of the file in {@code xmir/simple/in}.
+     */
+    @Param({"booms.xmir", "pets.xmir"})
+    public String file;
+
+    /**
+     * How many copies of the objects are in the program.
+     */
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    /**
+     * Speco: "default", "native" or "xsl" (default with the reference specialization).
+     */
+    @Param({"default", "native", "xsl"})
+    public String engine;
+
+    /**
+     * Speco to apply.
+     */
+    private Speco speco;
+
+    /**
+     * Program to specialize.
+     */
+    private Node doc;
+
+    /**
+     * Reads and scales the program.
+     *
+     * @throws IOException If fails to read it
+     */
+    @Setup
+    public void setup() throws IOException {
+        if ("native".equals(this.engine)) {
+            this.speco = new NativeSpeco();
+        } else if ("xsl".equals(this.engine)) {
+            this.speco = new DefaultSpeco(DefaultSpeco.reference());
+        } else {
+            this.speco = new DefaultSpeco();
+        }
+        final Document program = (Document) Walk.toXml(
+            Path.of("src", "test", "resources", "org", "eolang", "speco", "xmir", "simple", "in")
+                .resolve(this.file)
+        ).node();
+        SpecoBench.scale(program, this.scale);
+        this.doc = program;
+    }
+
+    /**
+     * Specializes the program.
+     *
+     * @return Specialized program
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public XML transform() throws IOException {
+        return this.speco.transform(new XmlNode(this.doc));
+    }
+
+    /**
+     * Adds copies of the objects and their AOI to the program, renamed with
+     * suffixes, so that each copy is specialized on its own.
+     *
+     * @param program Program
+     * @param copies Number of copies of the objects in the end
+     */
+    private static void scale(final Document program, final int copies) {
+        final Element objects = Dom.first(program.getDocumentElement(), "objects");
+        final Element aoi = Dom.first(program.getDocumentElement(), "aoi");
+        final List<Element> originals = Dom.children(objects, "o");
+        final List<Element> types = Dom.children(aoi, "obj");
+        final Set<String> names = new HashSet<>(0);
+        for (final Element obj : originals) {
+            names.add(obj.getAttribute("name"));
+        }
+        for (int idx = 1; idx < copies; ++idx) {
+            final String suffix = String.format("_%d", idx);
+            for (final Element obj : originals) {
+                final Element copy = (Element) obj.cloneNode(true);
+                copy.setAttribute("name", obj.getAttribute("name") + suffix);
+                for (final Element child : Dom.descendants(copy, "o")) {
+                    if (names.contains(child.getAttribute("base"))) {
+                        child.setAttribute("base", child.getAttribute("base") + suffix);
+                    }
+                }
+                objects.appendChild(copy);
+            }
+            for (final Element obj : types) {
+                final Element copy = (Element) obj.cloneNode(true);
+                for (final Element fqn : Dom.descendants(copy, "obj")) {
+                    SpecoBench.rename(fqn, names, suffix);
+                }
+                SpecoBench.rename(copy, names, suffix);
+                aoi.appendChild(copy);
+            }
+        }
+    }
+
+    /**
+     * Adds suffix to the object name in FQN.
+     *
+     * @param obj Element {@code <obj/>} of AOI
+     * @param names Names of the objects
+     * @param suffix Suffix
+     */
+    private static void rename(final Element obj, final Set<String> names,
+        final String suffix) {
+        final String fqn = obj.getAttribute("fqn");
+        final int dot = fqn.indexOf('.');
+        final String name;
+        final String rest;
+        if (dot < 0) {
+            name = fqn;
+            rest = "";
+        } else {
+            name = fqn.substring(0, dot);
+            rest = fqn.substring(dot);
+        }
+        if (names.contains(name)) {
+            obj.setAttribute("fqn", name + suffix + rest);
+        }
+    }
+}
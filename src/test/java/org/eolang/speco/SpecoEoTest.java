@@ -32,6 +32,8 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.eolang.jucs.ClasspathSource;
@@ -80,6 +82,50 @@ class SpecoEoTest {
         );
     }
 
+    /**
+     * Integration test for conversation from EO with the rules applied in Java.
+     * @param pack Pack this test data
+     * @param temp Temporary test dir
+     * @throws IOException Iff IO error
+     */
+    @Tag("fast")
+    @DisabledOnOs(OS.WINDOWS)
+    @ParameterizedTest
+    @ClasspathSource(value = "org/eolang/speco/packs", glob = "**.yaml")
+    void convertsFromEoNatively(final String pack, @TempDir final Path temp)
+        throws IOException {
+        final Map<String, Object> script = new Yaml().load(pack);
+        MatcherAssert.assertThat(
+            "Unexpected transformation result of rules in Java",
+            Files.readString(
+                SpecoEoTest.run(script, temp, new NativeSpeco()).resolve("app.eo")
+            ),
+            Matchers.equalTo(script.get("after").toString())
+        );
+    }
+
+    /**
+     * Checks that nothing but the output is written on disk.
+     * @param pack Pack this test data
+     * @param temp Temporary test dir
+     * @throws IOException Iff IO error
+     */
+    @Tag("fast")
+    @DisabledOnOs(OS.WINDOWS)
+    @ParameterizedTest
+    @ClasspathSource(value = "org/eolang/speco/packs/examples", glob = "counter.yaml")
+    void leavesNoIntermediateFiles(final String pack, @TempDir final Path temp)
+        throws IOException {
+        SpecoEoTest.run(new Yaml().load(pack), temp);
+        try (Stream<Path> files = Files.list(temp)) {
+            MatcherAssert.assertThat(
+                "Intermediate files are left on disk",
+                files.map(path -> path.getFileName().toString()).collect(Collectors.toList()),
+                Matchers.containsInAnyOrder("input", "output")
+            );
+        }
+    }
+
     /**
      * Integration test for compilation and result checking program converted from EO.
      * @todo #32:30min investigate problem with @DisableOnOs(OS.Windows),
@@ -119,6 +165,20 @@ class SpecoEoTest {
      */
     private static Path run(final Map<String, Object> script, final Path temp)
         throws IOException {
+        return SpecoEoTest.run(script, temp, new DefaultSpeco());
+    }
+
+    /**
+     * Runs Speco.
+     *
+     * @param script Yaml data object
+     * @param temp Path to the temporary dir
+     * @param speco Speco to apply
+     * @return Path to the output dir
+     * @throws IOException Iff IO error
+     */
+    private static Path run(final Map<String, Object> script, final Path temp,
+        final Speco speco) throws IOException {
         final Path input = temp.resolve("input");
         final Path output = temp.resolve("output");
         Files.createDirectories(input);
@@ -130,7 +190,7 @@ class SpecoEoTest {
         new EoWalk(
             input,
             output,
-            new DefaultSpeco()
+            speco
         ).exec();
         return output;
     }
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for events of Java Flight Recorder.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class SpecoEventTest {
+
+    @Test
+    void recordsStagesAndIterations(@TempDir final Path temp) throws IOException {
+        final Path dump = temp.resolve("speco.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.eolang.speco.Stage");
+            recording.enable("org.eolang.speco.Iteration");
+            recording.start();
+            new DefaultSpeco(DefaultSpeco.reference()).transform(
+                new XmlNode(new Workload(2, 1, 2, 1, 1).xmir())
+            );
+            recording.stop();
+            recording.dump(dump);
+        }
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        MatcherAssert.assertThat(
+            "Stages are not recorded",
+            events.stream()
+                .filter(event -> "org.eolang.speco.Stage".equals(event.getEventType().getName()))
+                .filter(event -> event.getLong("nodes") > 0L)
+                .map(event -> event.getString("stage"))
+                .collect(Collectors.toList()),
+            Matchers.hasItems("1-1-coping", "3-1-add-with", "7-1-substitute-returned")
+        );
+        MatcherAssert.assertThat(
+            "Iterations are not recorded",
+            events.stream()
+                .filter(
+                    event -> "org.eolang.speco.Iteration".equals(event.getEventType().getName())
+                )
+                .map(event -> event.getString("stage"))
+                .collect(Collectors.toList()),
+            Matchers.hasItem("1-2-specialization")
+        );
+    }
+}
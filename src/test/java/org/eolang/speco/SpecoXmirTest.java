@@ -56,8 +56,58 @@ class SpecoXmirTest {
             out,
             new DefaultSpeco()
         ).exec();
-        final Path expected = base.resolve("out");
-        for (final Path path : Files.newDirectoryStream(expected)) {
+        SpecoXmirTest.compare(base.resolve("out"), out);
+    }
+
+    @Tag("fast")
+    @ParameterizedTest
+    @ValueSource(strings = "simple")
+    void convertsFromXmirConcurrently(final String title, @TempDir final Path out)
+        throws IOException {
+        final Path base = Path.of(
+            "src", "test", "resources",
+            "org", "eolang", "speco",
+            "xmir", title
+        );
+        new XmirWalk(
+            base.resolve("in"),
+            out,
+            new DefaultSpeco(),
+            Runtime.getRuntime().availableProcessors()
+        ).exec();
+        SpecoXmirTest.compare(base.resolve("out"), out);
+    }
+
+    @Tag("fast")
+    @ParameterizedTest
+    @ValueSource(strings = "simple")
+    void mirrorsNestedDirectories(final String title, @TempDir final Path temp)
+        throws IOException {
+        final Path base = Path.of(
+            "src", "test", "resources",
+            "org", "eolang", "speco",
+            "xmir", title
+        );
+        final Path nested = temp.resolve("in").resolve("org").resolve("eolang");
+        Files.createDirectories(nested);
+        for (final Path path : Batch.files(base.resolve("in"))) {
+            Files.copy(path, nested.resolve(path.getFileName()));
+        }
+        new XmirWalk(temp.resolve("in"), temp.resolve("out"), new DefaultSpeco(), 2).exec();
+        SpecoXmirTest.compare(
+            base.resolve("out"), temp.resolve("out").resolve("org").resolve("eolang")
+        );
+    }
+
+    /**
+     * Compares produced files with expected ones.
+     *
+     * @param expected Directory with expected files
+     * @param out Directory with produced files
+     * @throws IOException Iff IO error
+     */
+    private static void compare(final Path expected, final Path out) throws IOException {
+        for (final Path path : Batch.files(expected)) {
             MatcherAssert.assertThat(
                 String.format(
                     "Files %s in %s and %s are different",
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests for specialization of independent components.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class SplitSpecoTest {
+
+    @Test
+    void splitsIndependentObjects() throws IOException {
+        MatcherAssert.assertThat(
+            "Independent objects are not split",
+            SplitSpeco.parts(EoWalk.parse("app", SplitSpecoTest.program())),
+            Matchers.hasSize(2)
+        );
+    }
+
+    @Test
+    void keepsObjectsCallingEachOtherTogether() throws IOException {
+        MatcherAssert.assertThat(
+            "Dependent objects are split",
+            SplitSpeco.parts(
+                EoWalk.parse("app", SplitSpecoTest.program().replace(".step", ".next"))
+            ),
+            Matchers.hasSize(1)
+        );
+    }
+
+    @Test
+    void specializesSameAsWhole(@TempDir final Path temp) throws IOException {
+        final Document doc = EoWalk.parse("app", SplitSpecoTest.typed());
+        new Aoi(Collections.singletonMap("app", doc)).exec();
+        MatcherAssert.assertThat(
+            "Program is not split",
+            SplitSpeco.parts(doc).size(),
+            Matchers.greaterThan(1)
+        );
+        Files.createDirectories(temp.resolve("in"));
+        Files.writeString(temp.resolve("in").resolve("app.eo"), SplitSpecoTest.typed());
+        new EoWalk(temp.resolve("in"), temp.resolve("whole"), new DefaultSpeco()).exec();
+        new EoWalk(
+            temp.resolve("in"), temp.resolve("split"), new SplitSpeco(new DefaultSpeco(), 2)
+        ).exec();
+        MatcherAssert.assertThat(
+            "Components are specialized differently",
+            SplitSpecoTest.objects(temp.resolve("split").resolve("app.eo")),
+            Matchers.allOf(
+                Matchers.equalTo(SplitSpecoTest.objects(temp.resolve("whole").resolve("app.eo"))),
+                Matchers.hasItem(Matchers.containsString("_spec_"))
+            )
+        );
+    }
+
+    @Test
+    void reusesThreadsAcrossFiles() throws IOException {
+        final Document doc = EoWalk.parse("app", SplitSpecoTest.typed());
+        new Aoi(Collections.singletonMap("app", doc)).exec();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final Speco speco = new SplitSpeco(
+            xml -> {
+                threads.add(Thread.currentThread());
+                return xml;
+            },
+            2
+        );
+        for (int idx = 0; idx < 3; ++idx) {
+            speco.transform(String.format("app%d.eo", idx), new XmlNode(doc));
+        }
+        MatcherAssert.assertThat(
+            "Threads are started for each file",
+            threads,
+            Matchers.hasSize(2)
+        );
+    }
+
+    /**
+     * Program with two independent counters.
+     *
+     * @return Source code
+     * @throws IOException If fails to read
+     */
+    private static String program() throws IOException {
+        final Map<String, Object> script;
+        try (InputStream yaml = SplitSpecoTest.class.getResourceAsStream(
+            "/org/eolang/speco/packs/examples/counter.yaml"
+        )) {
+            script = new Yaml().load(yaml);
+        }
+        final String counter = script.get("before").toString();
+        return String.join(
+            "\n",
+            counter,
+            counter.replace("counter", "stepper").replace("next", "step")
+                .replace("> k", "> m").replace(".k", ".m").replace("] > app", "] > main")
+        );
+    }
+
+    /**
+     * Program with two groups of objects, whose free attributes are
+     * constrained by the attributes called on them, so AOI infers the objects
+     * of their own group only.
+     *
+     * @return Source code
+     */
+    private static String typed() {
+        return String.join(
+            "\n",
+            "[x] > left",
+            "  x.foo > @",
+            "[] > lfoo",
+            "  [] > foo",
+            "    1 > @",
+            "[] > lapp",
+            "  left lfoo > @",
+            "[y] > right",
+            "  y.bar > @",
+            "[] > rbar",
+            "  [] > bar",
+            "    2 > @",
+            "[] > rapp",
+            "  right rbar > @"
+        );
+    }
+
+    /**
+     * Top-level objects of the program with their bodies, in any order.
+     *
+     * @param path Source code
+     * @return Objects
+     * @throws IOException If fails to read
+     */
+    private static TreeSet<String> objects(final Path path) throws IOException {
+        return Arrays.stream(Files.readString(path).split("\n(?=\\S)"))
+            .map(String::trim)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
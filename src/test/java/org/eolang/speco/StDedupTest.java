@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests for merging of identical specialized objects.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class StDedupTest {
+
+    @Test
+    void mergesVersionsReferringToThemselves(@TempDir final Path temp) throws IOException {
+        final Map<String, Object> script;
+        try (InputStream yaml = StDedupTest.class.getResourceAsStream(
+            "/org/eolang/speco/packs/examples/counter.yaml"
+        )) {
+            script = new Yaml().load(yaml);
+        }
+        Files.createDirectories(temp.resolve("in"));
+        Files.writeString(temp.resolve("in").resolve("app.eo"), script.get("before").toString());
+        new EoWalk(
+            temp.resolve("in"), temp.resolve("out"),
+            new StepSpeco(new DefaultSpeco(), new StDedup())
+        ).exec();
+        MatcherAssert.assertThat(
+            "Identical versions are not merged",
+            Files.readString(temp.resolve("out").resolve("app.eo")),
+            Matchers.allOf(
+                Matchers.containsString("[s] > counter_spec_s_counter\n"),
+                Matchers.not(Matchers.containsString("[s] > counter_spec_s_counter_next\n")),
+                Matchers.not(Matchers.containsString("[s] > counter_spec_s_app\n")),
+                Matchers.not(Matchers.containsString("counter_spec_s_counter_next > @"))
+            )
+        );
+    }
+
+    @Test
+    void keepsVersionOfEachObject() throws IOException {
+        MatcherAssert.assertThat(
+            "Versions of different objects are merged",
+            new StepSpeco(new DefaultSpeco(), new StDedup()).transform(
+                new XmlNode(new Workload(3, 1, 2, 0, 1).xmir())
+            ).xpath("/program/objects/o[@spec]/@name"),
+            Matchers.contains("g0_spec_a0_t0", "g1_spec_a0_t0", "g2_spec_a0_t0")
+        );
+    }
+
+    @Test
+    void dropsSpecoVersionsOfMergedObjects() throws IOException {
+        final Map<String, Object> script;
+        try (InputStream yaml = StDedupTest.class.getResourceAsStream(
+            "/org/eolang/speco/packs/examples/counter.yaml"
+        )) {
+            script = new Yaml().load(yaml);
+        }
+        final Document doc = EoWalk.parse("app", script.get("before").toString());
+        new Aoi(Collections.singletonMap("app", doc)).exec();
+        final XML xmir = new StepSpeco(new DefaultSpeco(), new StDedup()).transform(
+            new XmlNode(doc)
+        );
+        MatcherAssert.assertThat(
+            "Speco names versions, which are not in the output",
+            xmir.xpath("/program/speco/version/o/@name"),
+            Matchers.everyItem(
+                Matchers.in(xmir.xpath("/program/objects/o[@spec]/@name"))
+            )
+        );
+    }
+}
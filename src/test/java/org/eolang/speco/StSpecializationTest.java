@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XMLDocument;
+import com.yegor256.xsline.Xsline;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that the worklist specialization does the same as the reference stylesheet.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class StSpecializationTest {
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "<obj fqn='foo.x'><inferred><obj fqn='first'/><obj fqn='second'/></inferred></obj>",
+            "<obj fqn='foo.x'><inferred><obj fqn='a.b'/><obj fqn='c'/></inferred></obj><obj fqn='foo.y'><inferred><obj fqn='d'/><obj fqn='e.f'/></inferred></obj><obj fqn='bar.z'><inferred><obj fqn='g'/></inferred></obj>",
+            "<obj fqn='bar.z'><inferred/></obj><obj fqn='foo.x'><inferred><obj fqn='h'/></inferred></obj><obj fqn='foo.y'><inferred/></obj>",
+            "<obj fqn='foo'><inferred><obj fqn='i'/></inferred></obj>",
+        }
+    )
+    void specializesAsStylesheet(final String speco) {
+        final XMLDocument doc = new XMLDocument(
+            String.join(
+                "",
+                "<program><objects>",
+                "<o abstract='' name='foo'><o name='x'/><o name='y'/>",
+                "<o base='.boom' name='@'><o base='x'/><o base='y'/></o></o>",
+                "<o abstract='' name='bar'><o name='z'/></o>",
+                "</objects><aoi/><speco>\n  ",
+                speco,
+                "\n</speco></program>"
+            )
+        );
+        MatcherAssert.assertThat(
+            "Worklist specialization differs from the stylesheet",
+            new StSpecialization().apply(0, doc).toString(),
+            Matchers.equalTo(new Xsline(DefaultSpeco.reference()).pass(doc).toString())
+        );
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.yegor256.xsline.Shift;
+import com.yegor256.xsline.TrDefault;
+import com.yegor256.xsline.Train;
+import com.yegor256.xsline.Xsline;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Node;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Benchmark of each transformation, on the document of its test from
+ * {@code transformations/*.yaml}.
+ *
+ * <p>Run it with {@code mvn -Pjmh test-compile exec:exec}.</p>
+ *
+ * @since 0.0.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StagesBench {
+
+    /**
+     * Name of the transformation test.
+     */
+    @Param({
+        "1-1-coping",
+        "1-2-specialization",
+        "1-3-extension",
+        "2-1-substitute-applications",
+        "3-1-add-with",
+        "4-1-fence-tuples",
+        "5-1-substitute-fence",
+        "6-1-substitute-dominant",
+        "7-1-substitute-returned",
+        "clear",
+    })
+    public String stage;
+
+    /**
+     * Stylesheets of the test.
+     */
+    private Xsline line;
+
+    /**
+     * Document of the test.
+     */
+    private Node doc;
+
+    /**
+     * Loads the test.
+     *
+     * @throws IOException If fails to read it
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        final Map<String, Object> script;
+        try (InputStream yaml = StagesBench.class.getResourceAsStream(
+            String.format("/org/eolang/speco/transformations/%s.yaml", this.stage)
+        )) {
+            script = new Yaml().load(yaml);
+        }
+        Train<Shift> train = new TrDefault<>();
+        for (final String sheet : (List<String>) script.get("sheets")) {
+            train = train.with(new StCompiled(sheet));
+        }
+        this.line = new Xsline(train);
+        this.doc = new XMLDocument(script.get("document").toString()).node();
+    }
+
+    /**
+     * Applies the transformation.
+     *
+     * @return Transformed document
+     */
+    @Benchmark
+    public XML transform() {
+        return this.line.pass(new XmlNode(this.doc));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the time to the first output: a new JVM runs the jar on one file.
+ *
+ * <p>Build the jar and the archive of classes first, then run it with
+ * {@code mvn -Pcds package -DskipTests && mvn -Pjmh test-compile exec:exec
+ * -Djmh.args=StartupBench}.</p>
+ *
+ * @since 0.0.4
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBench {
+
+    /**
+     * Archive of classes: "none" or "cds".
+     */
+    @Param({"none", "cds"})
+    public String archive;
+
+    /**
+     * Directory with the jar and the archive.
+     */
+    private final Path target = Paths.get("target");
+
+    /**
+     * Command to run.
+     */
+    private List<String> command;
+
+    /**
+     * Directory with the output.
+     */
+    private Path output;
+
+    /**
+     * Makes the command and the directory with the program.
+     *
+     * @throws IOException If fails to copy the program
+     */
+    @Setup
+    public void setup() throws IOException {
+        final Path jar = this.target.resolve("speco-1.0-SNAPSHOT-jar-with-dependencies.jar");
+        final Path jsa = this.target.resolve("speco.jsa");
+        if (!Files.exists(jar) || !Files.exists(jsa)) {
+            throw new IllegalStateException(
+                "Build the jar and the archive by 'mvn -Pcds package -DskipTests'"
+            );
+        }
+        final Path input = Files.createTempDirectory("startup");
+        Files.copy(
+            Paths.get("src", "test", "resources", "org", "eolang", "speco", "xmir", "simple", "in")
+                .resolve("booms.xmir"),
+            input.resolve("booms.xmir")
+        );
+        this.output = input.resolve("out");
+        this.command = new ArrayList<>(0);
+        this.command.add(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString()
+        );
+        if ("cds".equals(this.archive)) {
+            this.command.add(String.format("-XX:SharedArchiveFile=%s", jsa));
+            this.command.add("-Xlog:cds=off");
+        }
+        this.command.add("-jar");
+        this.command.add(jar.toString());
+        this.command.add(String.format("--source=%s", input));
+        this.command.add(String.format("--target=%s", this.output));
+    }
+
+    /**
+     * Removes the output of the previous run, so that it is not skipped.
+     *
+     * @throws IOException If fails to delete
+     */
+    @Setup(Level.Iteration)
+    public void clean() throws IOException {
+        if (Files.exists(this.output)) {
+            for (final File file : this.output.toFile().listFiles()) {
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    /**
+     * Runs speco in a new JVM and waits for it.
+     *
+     * @return Exit code
+     * @throws IOException If fails to start
+     * @throws InterruptedException If interrupted
+     */
+    @Benchmark
+    public int start() throws IOException, InterruptedException {
+        return new ProcessBuilder(this.command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start()
+            .waitFor();
+    }
+}
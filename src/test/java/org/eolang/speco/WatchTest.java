@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for watch mode.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class WatchTest {
+
+    @Test
+    void runsWalkAgainAfterChange(@TempDir final Path temp) throws Exception {
+        final Semaphore runs = new Semaphore(0);
+        final Thread thread = new Thread(
+            () -> {
+                try {
+                    new Watch(temp, runs::release).exec();
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+        thread.start();
+        try {
+            MatcherAssert.assertThat(
+                "Walk is not run at start",
+                runs.tryAcquire(10L, TimeUnit.SECONDS),
+                Matchers.is(true)
+            );
+            Files.writeString(temp.resolve("app.eo"), "[] > app\n");
+            MatcherAssert.assertThat(
+                "Walk is not run after change",
+                runs.tryAcquire(10L, TimeUnit.SECONDS),
+                Matchers.is(true)
+            );
+        } finally {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Synthetic EO program of the given size, for scaling tests and benchmarks.
+ *
+ * <p>The program has {@code types} objects {@code t0, t1, ...} with attribute
+ * {@code bar} and {@code objects} objects {@code g0, g1, ...}, each with
+ * {@code attributes} free attributes, which call {@code bar} in a {@code seq}
+ * nested {@code depth} times. So AOI infers all the types for each free
+ * attribute. Each object also has {@code fences} fence attributes, which write
+ * to its {@code memory}; their names differ between the objects, since
+ * the rules match fence attributes by name. Object {@code app} applies each of the objects to
+ * {@code types} different combinations of the types and calls its
+ * fence attributes.</p>
+ *
+ * @since 0.0.4
+ */
+final class Workload {
+
+    /**
+     * Number of objects to specialize.
+     */
+    private final int objects;
+
+    /**
+     * Number of free attributes of each object.
+     */
+    private final int attributes;
+
+    /**
+     * Number of types inferred for each free attribute.
+     */
+    private final int types;
+
+    /**
+     * Number of fence attributes of each object.
+     */
+    private final int fences;
+
+    /**
+     * Depth of nesting of the bodies.
+     */
+    private final int depth;
+
+    /**
+     * Ctor.
+     *
+     * @param objects Number of objects to specialize
+     * @param attributes Number of free attributes of each object
+     * @param types Number of types inferred for each free attribute
+     * @param fences Number of fence attributes of each object
+     * @param depth Depth of nesting of the bodies
+     */
+    Workload(final int objects, final int attributes, final int types, final int fences,
+        final int depth) {
+        if (objects < 1 || attributes < 1 || types < 1 || fences < 0 || depth < 1) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Wrong workload: %d objects, %d attributes, %d types, %d fences, depth %d",
+                    objects, attributes, types, fences, depth
+                )
+            );
+        }
+        this.objects = objects;
+        this.attributes = attributes;
+        this.types = types;
+        this.fences = fences;
+        this.depth = depth;
+    }
+
+    /**
+     * Source code of the program.
+     *
+     * @return EO
+     */
+    String eo() {
+        final StringBuilder eo = new StringBuilder(0);
+        for (int type = 0; type < this.types; ++type) {
+            eo.append(String.format("[] > t%d%n", type))
+                .append(String.format("  [] > bar%n"))
+                .append(String.format("    QQ%n    .io%n    .stdout > @%n"))
+                .append(String.format("      \"%d\\n\"%n%n", type));
+        }
+        for (int obj = 0; obj < this.objects; ++obj) {
+            this.object(eo, obj);
+        }
+        this.app(eo);
+        return eo.toString();
+    }
+
+    /**
+     * Program, parsed and with the types, which AOI infers for it,
+     * as Speco takes it.
+     *
+     * <p>The types are known by construction, so AOI itself is not run:
+     * it takes much longer than specialization on big programs.</p>
+     *
+     * @return XMIR
+     * @throws IOException If fails to parse
+     */
+    Document xmir() throws IOException {
+        final Document doc = EoWalk.parse("app", this.eo());
+        final Element aoi = doc.createElement("aoi");
+        for (int obj = 0; obj < this.objects; ++obj) {
+            for (int attr = 0; attr < this.attributes; ++attr) {
+                final Element free = doc.createElement("obj");
+                free.setAttribute("fqn", String.format("g%d.a%d", obj, attr));
+                final Element inferred = doc.createElement("inferred");
+                for (int type = 0; type < this.types; ++type) {
+                    final Element inf = doc.createElement("obj");
+                    inf.setAttribute("fqn", String.format("t%d", type));
+                    inferred.appendChild(inf);
+                }
+                free.appendChild(inferred);
+                aoi.appendChild(free);
+            }
+        }
+        doc.getDocumentElement().appendChild(aoi);
+        return doc;
+    }
+
+    /**
+     * Saves the source code of the program to the directory.
+     *
+     * @param dir Directory
+     * @return Path to the saved file
+     * @throws IOException If fails to write
+     */
+    Path save(final Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve("app.eo"), this.eo().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Prints the object to specialize.
+     *
+     * @param eo Source code to append to
+     * @param obj Number of the object
+     */
+    private void object(final StringBuilder eo, final int obj) {
+        eo.append('[');
+        for (int attr = 0; attr < this.attributes; ++attr) {
+            if (attr > 0) {
+                eo.append(' ');
+            }
+            eo.append('a').append(attr);
+        }
+        eo.append(String.format("] > g%d%n", obj));
+        if (this.fences > 0) {
+            eo.append(String.format("  memory > k%n    0%n"));
+        }
+        for (int fence = 0; fence < this.fences; ++fence) {
+            eo.append(String.format("  [] > next%d_%d%n", obj, fence))
+                .append(String.format("    seq > @%n      ^%n      .k%n      .write%n"))
+                .append(String.format("        ^%n        .k%n        .plus%n          1%n"))
+                .append(String.format("      ^%n      .k%n"));
+        }
+        eo.append(String.format("  seq > @%n"));
+        String indent = "    ";
+        for (int level = 1; level < this.depth; ++level) {
+            eo.append(indent).append(String.format("seq%n"));
+            indent = String.format("%s  ", indent);
+        }
+        for (int attr = 0; attr < this.attributes; ++attr) {
+            eo.append(indent).append(String.format("a%d%n", attr))
+                .append(indent).append(String.format(".bar%n"));
+        }
+        eo.append(String.format("%n"));
+    }
+
+    /**
+     * Prints the object, which applies the others.
+     *
+     * @param eo Source code to append to
+     */
+    private void app(final StringBuilder eo) {
+        eo.append(String.format("[] > app%n"));
+        for (int obj = 0; obj < this.objects && this.fences > 0; ++obj) {
+            eo.append(String.format("  g%d > c%d%n", obj, obj));
+            for (int attr = 0; attr < this.attributes; ++attr) {
+                eo.append(String.format("    t%d%n", attr % this.types));
+            }
+            for (int fence = 0; fence < this.fences; ++fence) {
+                eo.append(
+                    String.format("  c%d%n  .next%d_%d > x%d_%d%n", obj, obj, fence, obj, fence)
+                );
+            }
+        }
+        eo.append(String.format("  seq > @%n"));
+        for (int obj = 0; obj < this.objects; ++obj) {
+            for (int app = 0; app < this.types; ++app) {
+                eo.append(String.format("    g%d%n", obj));
+                for (int attr = 0; attr < this.attributes; ++attr) {
+                    eo.append(String.format("      t%d%n", (app + attr) % this.types));
+                }
+            }
+            for (int fence = 0; fence < this.fences; ++fence) {
+                eo.append(String.format("    x%d_%d%n", obj, fence));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Tests for synthetic programs.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class WorkloadTest {
+
+    @Test
+    void infersTypesAsAoi() throws IOException {
+        final Workload workload = new Workload(2, 2, 3, 1, 2);
+        final Document doc = EoWalk.parse("app", workload.eo());
+        new Aoi(Collections.singletonMap("app", doc)).exec();
+        MatcherAssert.assertThat(
+            "Types differ from the ones AOI infers",
+            new XmlNode(workload.xmir()).nodes("/program/aoi").get(0).toString(),
+            Matchers.equalTo(new XmlNode(doc).nodes("/program/aoi").get(0).toString())
+        );
+    }
+
+    @Test
+    void specializesEachObjectForEachType() throws IOException {
+        MatcherAssert.assertThat(
+            "Not all the versions are made",
+            new DefaultSpeco().transform(
+                new XmlNode(new Workload(3, 1, 4, 0, 2).xmir())
+            ).xpath("/program/objects/o[contains(@name, '_spec_')]/@name"),
+            Matchers.hasSize(12)
+        );
+    }
+
+    @Test
+    void specializesSameByAllSpecos() throws IOException {
+        final Document xmir = new Workload(2, 2, 2, 1, 3).xmir();
+        MatcherAssert.assertThat(
+            "Specos differ on synthetic program",
+            new NativeSpeco().transform(new XmlNode(xmir.cloneNode(true))).toString(),
+            Matchers.equalTo(
+                new DefaultSpeco(DefaultSpeco.reference())
+                    .transform(new XmlNode(xmir.cloneNode(true))).toString()
+            )
+        );
+    }
+}
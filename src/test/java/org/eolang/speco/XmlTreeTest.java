@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Objectionary
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.eolang.speco;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Tests for the document, which keeps the compact tree.
+ *
+ * @since 0.0.4
+ */
+@Tag("fast")
+class XmlTreeTest {
+
+    @Test
+    void givesCopyOfNodeAway() {
+        final XML xml = new StCompiled(Stylesheets.WRAP).apply(
+            0, new XMLDocument("<program><objects/></program>")
+        );
+        final String before = xml.toString();
+        final Document node = (Document) xml.node();
+        node.getDocumentElement().appendChild(node.createElement("errors"));
+        MatcherAssert.assertThat(
+            "Modification of the node changes the document",
+            xml.toString(),
+            Matchers.equalTo(before)
+        );
+        MatcherAssert.assertThat(
+            "Modification of the node changes the next node",
+            xml.nodes("/program/errors"),
+            Matchers.empty()
+        );
+    }
+}